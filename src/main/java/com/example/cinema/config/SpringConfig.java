@@ -1,14 +1,22 @@
 package com.example.cinema.config;
 
 import com.example.cinema.util.connection.pool.ConnectionManager;
+import com.example.cinema.util.connection.pool.ReadRoutingProperties;
+import com.example.cinema.util.request.RequestDeadlineFilter;
+import com.example.cinema.util.request.RequestRoutingFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ViewResolverRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -16,6 +24,9 @@ import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
 import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
 
 @Configuration
 @ComponentScan("com.example.cinema")
@@ -23,10 +34,16 @@ import org.thymeleaf.spring6.view.ThymeleafViewResolver;
 @EnableWebMvc
 public class SpringConfig implements WebMvcConfigurer {
     private final ApplicationContext applicationContext;
+    private final Duration asyncRequestTimeout;
+    private final int asyncPoolSize;
 
     @Autowired
-    public SpringConfig(ApplicationContext applicationContext) {
+    public SpringConfig(ApplicationContext applicationContext,
+                        @Value("${mvc.async.request-timeout:30m}") Duration asyncRequestTimeout,
+                        @Value("${mvc.async.pool-size:8}") int asyncPoolSize) {
         this.applicationContext = applicationContext;
+        this.asyncRequestTimeout = asyncRequestTimeout;
+        this.asyncPoolSize = asyncPoolSize;
     }
 
     @Bean
@@ -54,6 +71,49 @@ public class SpringConfig implements WebMvcConfigurer {
         return hiddenHttpMethodFilterFilterRegistrationBean;
     }
 
+    @Bean
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(
+            @Value("${db.request-timeout}") Duration requestTimeout) {
+        var requestDeadlineFilterRegistrationBean = new FilterRegistrationBean<>(new RequestDeadlineFilter(requestTimeout));
+        requestDeadlineFilterRegistrationBean.addUrlPatterns("/*");
+        return requestDeadlineFilterRegistrationBean;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestRoutingFilter> requestRoutingFilter(ReadRoutingProperties readRoutingProperties) {
+        var requestRoutingFilterRegistrationBean = new FilterRegistrationBean<>(
+                new RequestRoutingFilter(readRoutingProperties.getPrimaryAfterWrite()));
+        requestRoutingFilterRegistrationBean.addUrlPatterns("/*");
+        return requestRoutingFilterRegistrationBean;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // Runs StreamingResponseBody writers such as the catalog export. @EnableWebMvc
+    // ignores spring.mvc.async.*, so without this the writers would share an
+    // unbounded default executor and be cut off by the servlet container's
+    // 30 second async timeout
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setCorePoolSize(asyncPoolSize);
+        executor.setMaxPoolSize(asyncPoolSize);
+        executor.setQueueCapacity(asyncPoolSize * 4);
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+        configurer.setDefaultTimeout(asyncRequestTimeout.toMillis());
+    }
+
     @Override
     public void configureViewResolvers(ViewResolverRegistry registry) {
         ThymeleafViewResolver resolver = new ThymeleafViewResolver();
@@ -0,0 +1,49 @@
+package com.example.cinema.controller;
+
+import com.example.cinema.dao.CatalogImportDao;
+import com.example.cinema.model.dto.ImportJobDto;
+import com.example.cinema.service.CatalogImportServiceImpl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/imports")
+public class CatalogImportController {
+    private final CatalogImportServiceImpl catalogImportService;
+
+    public CatalogImportController(CatalogImportServiceImpl catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+
+    @PostMapping
+    public ResponseEntity<ImportJobDto> upload(@RequestParam("file") MultipartFile file,
+                                               @RequestParam(value = "format", defaultValue = "CSV") CatalogImportDao.Format format)
+            throws IOException {
+        // The multipart part is deleted when the request ends, before the job runs
+        Path catalog = Files.createTempFile("catalog-", ".import");
+        try {
+            file.transferTo(catalog);
+        } catch (IOException e) {
+            Files.deleteIfExists(catalog);
+            throw e;
+        }
+
+        ImportJobDto job = catalogImportService.submit(catalog, format);
+        return ResponseEntity.accepted()
+                .location(URI.create("/imports/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ImportJobDto progress(@PathVariable("id") UUID id) {
+        return catalogImportService.getJob(id);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.cinema.controller;
+
+import com.example.cinema.exception.BadRequestException;
+import com.example.cinema.exception.ForbiddenException;
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import com.example.cinema.util.connection.pool.ConnectionPool;
+import com.example.cinema.util.connection.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+@RestController
+@RequestMapping("/diagnostics")
+public class DiagnosticsController {
+    static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final ConnectionManager connectionManager;
+    private final String adminToken;
+
+    public DiagnosticsController(ConnectionManager connectionManager,
+                                 @Value("${diagnostics.admin-token:}") String adminToken) {
+        this.connectionManager = connectionManager;
+        this.adminToken = adminToken;
+    }
+
+
+    @GetMapping("/pool")
+    public PoolStats poolStats() {
+        return connectionManager.getPoolStats();
+    }
+
+    @GetMapping("/replicas")
+    public List<PoolStats> replicaPoolStats() {
+        return connectionManager.getReplicaPoolStats();
+    }
+
+    @PostMapping("/pool/size")
+    public PoolStats resizePool(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                @RequestParam(value = "pool", defaultValue = "primary") String poolName,
+                                @RequestParam("min") int minSize,
+                                @RequestParam("max") int maxSize) {
+        checkAdminToken(token);
+        if (!ConnectionPool.isValidSize(minSize, maxSize)) {
+            throw BadRequestException.invalidPoolSize(minSize, maxSize);
+        }
+
+        ConnectionPool pool = connectionManager.findPool(poolName)
+                .orElseThrow(() -> BadRequestException.poolDoesNotExist(poolName));
+        pool.resize(minSize, maxSize);
+        return pool.getStats();
+    }
+
+    //  ------------------UTIL METHODS------------------
+
+    // Resizing is refused outright while no token is configured
+    private void checkAdminToken(String token) {
+        if (adminToken.isEmpty() || token == null || !MessageDigest.isEqual(
+                adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            throw ForbiddenException.adminTokenRequired();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.cinema.controller;
 
+import com.example.cinema.model.dto.CursorPage;
 import com.example.cinema.model.dto.GenresDto;
 import com.example.cinema.service.GenreServiceImpl;
 import org.springframework.stereotype.Controller;
@@ -17,8 +18,14 @@ public class GenresController {
 
 
     @GetMapping
-    public String showAll(Model model) {
-        model.addAttribute("genres", genreService.getAllGenres());
+    public String showAll(@RequestParam(value = "after", required = false) Integer after,
+                          @RequestParam(value = "before", required = false) Integer before,
+                          @RequestParam(value = "size", defaultValue = "20") int size,
+                          Model model) {
+        CursorPage<GenresDto> page = genreService.getGenresPage(after, before, size);
+
+        model.addAttribute("genres", page.getItems());
+        model.addAttribute("page", page);
         return "genres/showAll";
     }
 
@@ -58,8 +65,16 @@ public class GenresController {
     }
 
     @GetMapping("/{id}/movies")
-    public String findMoviesByGenre(@PathVariable("id") int id, Model model) {
-        model.addAttribute("movies", genreService.findMoviesByGenreId(id));
+    public String findMoviesByGenre(@PathVariable("id") int id,
+                                    @RequestParam(value = "after", required = false) Integer after,
+                                    @RequestParam(value = "before", required = false) Integer before,
+                                    @RequestParam(value = "size", defaultValue = "20") int size,
+                                    Model model) {
+        CursorPage<String> page = genreService.findMoviesByGenreId(id, after, before, size);
+
+        model.addAttribute("genreId", id);
+        model.addAttribute("movies", page.getItems());
+        model.addAttribute("page", page);
         return "genres/movies";
     }
 }
\ No newline at end of file
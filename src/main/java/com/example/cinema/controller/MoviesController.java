@@ -1,35 +1,121 @@
 package com.example.cinema.controller;
 
+import com.example.cinema.model.dto.CursorPage;
+import com.example.cinema.model.dto.FilterPage;
+import com.example.cinema.model.dto.MovieFilter;
+import com.example.cinema.model.dto.MovieSuggestionDto;
+import com.example.cinema.model.dto.MoviesDto;
+import com.example.cinema.model.dto.MoviesPatchDto;
+import com.example.cinema.model.dto.SearchPage;
 import com.example.cinema.service.MoviesServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
 
 @Controller
 @RequestMapping("/movies")
 public class MoviesController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final MoviesServiceImpl moviesService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public MoviesController(MoviesServiceImpl moviesService) {
+    public MoviesController(MoviesServiceImpl moviesService, ObjectMapper objectMapper) {
         this.moviesService = moviesService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public String showAll(Model model) {
-        model.addAttribute("movies", moviesService.getAllMovies());
+    public String showAll(@RequestParam(value = "after", required = false) Integer after,
+                          @RequestParam(value = "before", required = false) Integer before,
+                          @RequestParam(value = "size", defaultValue = "20") int size,
+                          Model model) {
+        CursorPage<MoviesDto> page = moviesService.getMoviesPage(after, before, size);
+
+        model.addAttribute("movies", page.getItems());
+        model.addAttribute("page", page);
         return "movies/showAll";
     }
 
+    @GetMapping(value = "/filter", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public FilterPage<MoviesDto> filter(@RequestParam(value = "genre", required = false) List<Integer> genreIds,
+                                        @RequestParam(value = "genreMatch", defaultValue = "ANY") MovieFilter.GenreMatch genreMatch,
+                                        @RequestParam(value = "releasedFrom", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedFrom,
+                                        @RequestParam(value = "releasedTo", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedTo,
+                                        @RequestParam(value = "minDuration", required = false) Integer minDuration,
+                                        @RequestParam(value = "maxDuration", required = false) Integer maxDuration,
+                                        @RequestParam(value = "director", required = false) String director,
+                                        @RequestParam(value = "sort", defaultValue = "ID") MovieFilter.Sort sort,
+                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                        @RequestParam(value = "size", defaultValue = "20") int size) {
+        MovieFilter filter = new MovieFilter(genreIds, genreMatch, releasedFrom, releasedTo,
+                minDuration, maxDuration, director, sort);
+
+        return moviesService.filterMovies(filter, cursor, size);
+    }
+
+    @GetMapping("/search")
+    public String search(@RequestParam(value = "q", defaultValue = "") String query,
+                         @RequestParam(value = "cursor", required = false) String cursor,
+                         @RequestParam(value = "size", defaultValue = "20") int size,
+                         Model model) {
+        SearchPage<MoviesDto> page = moviesService.search(query, cursor, size);
+
+        model.addAttribute("movies", page.getItems());
+        model.addAttribute("page", page);
+        return "movies/search";
+    }
+
+    @GetMapping(value = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<MovieSuggestionDto> suggest(@RequestParam(value = "q", defaultValue = "") String prefix,
+                                            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return moviesService.suggest(prefix, limit);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = outputStream -> moviesService.exportAllMovies(movie -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(movie));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=movies.ndjson")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public String show(@PathVariable("id") int id, Model model) {
         model.addAttribute("movie", moviesService.getMovieById(id));
         return "movies/show";
     }
 
+    @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public MoviesDto patch(@PathVariable("id") int id, @RequestBody MoviesPatchDto patch) {
+        return moviesService.patch(id, patch);
+    }
+
     @GetMapping("/{id}/genres")
     public String movieGenres(@PathVariable("id") int id, Model model) {
         model.addAttribute("genres", moviesService.getMovieById(id).getGenres());
@@ -0,0 +1,31 @@
+package com.example.cinema.controller;
+
+import com.example.cinema.model.dto.CatalogStatsDto;
+import com.example.cinema.service.StatsServiceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+
+@Controller
+@RequestMapping("/stats")
+public class StatsController {
+    private final StatsServiceImpl statsService;
+
+    public StatsController(StatsServiceImpl statsService) {
+        this.statsService = statsService;
+    }
+
+
+    @GetMapping
+    public String show(Model model) {
+        model.addAttribute("stats", statsService.getCatalogStats());
+        return "stats/show";
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public CatalogStatsDto stats() {
+        return statsService.getCatalogStats();
+    }
+}
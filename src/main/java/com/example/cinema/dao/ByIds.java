@@ -0,0 +1,26 @@
+package com.example.cinema.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+// "id = ANY(?)" returns rows in no particular order; callers such as
+// watchlists expect them back in the order they asked for.
+final class ByIds {
+    private ByIds() {
+    }
+
+    static <T> List<T> inRequestedOrder(Collection<Integer> ids, Map<Integer, T> rowsById) {
+        List<T> rows = new ArrayList<>(rowsById.size());
+
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            T row = rowsById.get(id);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.cinema.dao;
+
+import com.example.cinema.exception.DaoException;
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Bulk catalog load: the feed is copied into a transaction-scoped staging table
+// and merged into movies, genres and movie_to_genre with a handful of set-based
+// statements. A movie is identified in the feed by (title, release_date);
+// genres are a '|' separated list. When the feed repeats a movie its last
+// line wins, genres included. Genre links are only ever added. movies does not
+// enforce (title, release_date) as a key; where it already holds the same pair
+// more than once, the import only touches the row with the lowest id.
+@Component
+public class CatalogImportDao {
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final ConnectionManager connectionManager;
+
+    @Autowired
+    public CatalogImportDao(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    public enum Format {
+        CSV("FORMAT csv, HEADER true"),
+        TSV("FORMAT text, HEADER true");
+
+        private final String copyOptions;
+
+        Format(String copyOptions) {
+            this.copyOptions = copyOptions;
+        }
+    }
+
+    public record Result(long rowsCopied, int moviesInserted, int moviesUpdated, int genresInserted, int linksInserted) {
+    }
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE movies_staging (
+                line             bigint generated always as identity,
+                title            varchar(200) not null,
+                release_date     date         not null,
+                director         varchar(100) not null,
+                duration_minutes integer,
+                description      text,
+                genres           text
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_SQL = """
+            COPY movies_staging (title, release_date, director, duration_minutes, description, genres)
+            FROM STDIN WITH (%s)
+            """;
+
+    private static final String ANALYZE_STAGING_SQL = "ANALYZE movies_staging";
+
+    private static final String UPDATE_MOVIES_SQL = """
+            UPDATE movies m
+            SET director = s.director,
+                duration_minutes = s.duration_minutes,
+                description = s.description,
+                version = m.version + 1
+            FROM (SELECT DISTINCT ON (title, release_date) *
+                  FROM movies_staging
+                  ORDER BY title, release_date, line DESC) s
+            WHERE m.id = (SELECT min(x.id)
+                          FROM movies x
+                          WHERE x.title = s.title
+                            AND x.release_date = s.release_date)
+              AND (m.director, m.duration_minutes, m.description)
+                  IS DISTINCT FROM (s.director, s.duration_minutes, s.description)
+            """;
+
+    private static final String INSERT_MOVIES_SQL = """
+            INSERT INTO movies(title, release_date, director, duration_minutes, description)
+            SELECT DISTINCT ON (s.title, s.release_date)
+                   s.title, s.release_date, s.director, s.duration_minutes, s.description
+            FROM movies_staging s
+            WHERE NOT EXISTS (SELECT 1
+                              FROM movies m
+                              WHERE m.title = s.title
+                                AND m.release_date = s.release_date)
+            ORDER BY s.title, s.release_date, s.line DESC
+            """;
+
+    // Genre titles are cleaned and matched like GenresDao does: whitespace runs
+    // collapse to one space, case is ignored and the lowest id wins
+    private static final String INSERT_GENRES_SQL = """
+            INSERT INTO genres(genre)
+            SELECT DISTINCT ON (lower(t.genre)) t.genre
+            FROM (SELECT DISTINCT ON (title, release_date) line, genres
+                  FROM movies_staging
+                  ORDER BY title, release_date, line DESC) s
+            CROSS JOIN LATERAL unnest(string_to_array(s.genres, '|')) AS g(genre)
+            CROSS JOIN LATERAL (SELECT btrim(regexp_replace(g.genre, '\\s+', ' ', 'g')) AS genre) t
+            WHERE t.genre <> ''
+              AND NOT EXISTS (SELECT 1
+                              FROM genres e
+                              WHERE lower(e.genre) = lower(t.genre))
+            ORDER BY lower(t.genre), s.line
+            ON CONFLICT (genre) DO NOTHING
+            """;
+
+    private static final String INSERT_LINKS_SQL = """
+            INSERT INTO movie_to_genre(movie_id, genre_id)
+            SELECT DISTINCT m.id, g.id
+            FROM (SELECT DISTINCT ON (title, release_date) title, release_date, genres
+                  FROM movies_staging
+                  ORDER BY title, release_date, line DESC) s
+            CROSS JOIN LATERAL (SELECT min(x.id) AS id
+                                FROM movies x
+                                WHERE x.title = s.title
+                                  AND x.release_date = s.release_date) m
+            CROSS JOIN LATERAL unnest(string_to_array(s.genres, '|')) AS t(genre)
+            CROSS JOIN LATERAL (SELECT e.id
+                                FROM genres e
+                                WHERE lower(e.genre) = lower(btrim(regexp_replace(t.genre, '\\s+', ' ', 'g')))
+                                ORDER BY e.id
+                                LIMIT 1) g
+            WHERE m.id IS NOT NULL
+            ON CONFLICT (movie_id, genre_id) DO NOTHING
+            """;
+
+    public Result importCatalog(InputStream catalog, Format format) {
+        try (var connection = connectionManager.get()) {
+            connection.setAutoCommit(false);
+
+            try (var statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_SQL);
+                long rowsCopied = copy(connection, catalog, format);
+                statement.execute(ANALYZE_STAGING_SQL);
+
+                int moviesUpdated = statement.executeUpdate(UPDATE_MOVIES_SQL);
+                int moviesInserted = statement.executeUpdate(INSERT_MOVIES_SQL);
+                int genresInserted = statement.executeUpdate(INSERT_GENRES_SQL);
+                int linksInserted = statement.executeUpdate(INSERT_LINKS_SQL);
+                connection.commit();
+
+                return new Result(rowsCopied, moviesInserted, moviesUpdated, genresInserted, linksInserted);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    //  ------------------UTIL METHODS------------------
+
+    private static long copy(Connection connection, InputStream catalog, Format format) throws SQLException {
+        try {
+            return connection.unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn(COPY_SQL.formatted(format.copyOptions), catalog, COPY_BUFFER_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.cinema.dao;
+
+import com.example.cinema.model.entity.GenresEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Immutable copy of the genres table. Genres are held twice, in an array sorted
+// by id and in one sorted by normalized title, and found by binary search.
+// Changes produce a new snapshot; entities never leave it without being copied.
+final class GenreSnapshot {
+    private static final Comparator<GenresEntity> BY_ID = Comparator.comparingInt(GenresEntity::getId);
+    private static final Comparator<GenresEntity> BY_TITLE =
+            Comparator.comparing((GenresEntity genre) -> GenresDao.normalize(genre.getTitle()))
+                    .thenComparingInt(GenresEntity::getId);
+
+    private final GenresEntity[] byId;
+    private final GenresEntity[] byTitle;
+    private final String[] titles; // normalized, in the order of byTitle
+
+    private GenreSnapshot(GenresEntity[] genres) {
+        byId = genres.clone();
+        Arrays.sort(byId, BY_ID);
+
+        byTitle = genres.clone();
+        Arrays.sort(byTitle, BY_TITLE);
+        titles = Arrays.stream(byTitle)
+                .map(genre -> GenresDao.normalize(genre.getTitle()))
+                .toArray(String[]::new);
+    }
+
+    static GenreSnapshot of(Collection<GenresEntity> genres) {
+        return new GenreSnapshot(genres.stream()
+                .map(GenreSnapshot::copy)
+                .toArray(GenresEntity[]::new));
+    }
+
+    //  ------------------READ------------------
+
+    GenresEntity findById(int id) {
+        int at = indexOfId(id);
+        return at < 0 ? null : copy(byId[at]);
+    }
+
+    // Lowest id wins when titles differ only in case, as in GenresDao.RESOLVE_ID_SQL
+    GenresEntity findByTitle(String genre) {
+        if (genre == null) {
+            return null;
+        }
+
+        String title = GenresDao.normalize(genre);
+        int low = 0;
+        int high = titles.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (titles[mid].compareTo(title) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low < titles.length && titles[low].equals(title) ? copy(byTitle[low]) : null;
+    }
+
+    List<GenresEntity> findAll() {
+        return copies(0, byId.length, false);
+    }
+
+    // Up to limit genres with an id above the given one, in ascending id order
+    List<GenresEntity> after(int id, int limit) {
+        int from = insertionPoint(id + 1);
+        return copies(from, Math.min(byId.length, from + limit), false);
+    }
+
+    // Up to limit genres with an id below the given one, in descending id order
+    List<GenresEntity> before(int id, int limit) {
+        int to = insertionPoint(id);
+        return copies(Math.max(0, to - limit), to, true);
+    }
+
+    int size() {
+        return byId.length;
+    }
+
+    //  ------------------UPDATE------------------
+
+    GenreSnapshot with(GenresEntity genre) {
+        List<GenresEntity> genres = new ArrayList<>(byId.length + 1);
+        for (GenresEntity existing : byId) {
+            if (!existing.getId().equals(genre.getId())) {
+                genres.add(existing);
+            }
+        }
+        genres.add(copy(genre));
+
+        return new GenreSnapshot(genres.toArray(GenresEntity[]::new));
+    }
+
+    GenreSnapshot without(Collection<Integer> ids) {
+        Set<Integer> removed = new HashSet<>(ids);
+
+        return new GenreSnapshot(Arrays.stream(byId)
+                .filter(genre -> !removed.contains(genre.getId()))
+                .toArray(GenresEntity[]::new));
+    }
+
+    //  ------------------UTIL METHODS------------------
+
+    private int indexOfId(int id) {
+        int at = insertionPoint(id);
+        return at < byId.length && byId[at].getId() == id ? at : -1;
+    }
+
+    // Index of the first genre with an id not below the given one
+    private int insertionPoint(int id) {
+        int low = 0;
+        int high = byId.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byId[mid].getId() < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private List<GenresEntity> copies(int from, int to, boolean descending) {
+        List<GenresEntity> genres = new ArrayList<>(Math.max(0, to - from));
+
+        for (int i = from; i < to; i++) {
+            genres.add(copy(byId[i]));
+        }
+        if (descending) {
+            Collections.reverse(genres);
+        }
+
+        return genres;
+    }
+
+    private static GenresEntity copy(GenresEntity genre) {
+        return new GenresEntity(genre.getId(), genre.getTitle());
+    }
+}
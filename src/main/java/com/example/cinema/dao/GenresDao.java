@@ -1,22 +1,55 @@
 package com.example.cinema.dao;
 
 import com.example.cinema.exception.DaoException;
+import com.example.cinema.model.dto.CursorPage;
 import com.example.cinema.model.entity.GenresEntity;
 import com.example.cinema.util.connection.pool.ConnectionManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
 
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+// Genres are small reference data, so reads are served from an in-memory
+// snapshot of the whole table instead of the database. Writes made through this
+// DAO swap in a new snapshot once committed; catalog imports reload it when
+// done, and a periodic reload picks up changes made on other nodes.
+@Slf4j
 @Component
+@DependsOn("migrationRunner")
 public class GenresDao {
+    private static final Duration DEFAULT_REFRESH_PERIOD = Duration.ofMinutes(1);
+
     private final ConnectionManager connectionManager;
+    private final Duration refreshPeriod;
+    // null until first loaded
+    private final AtomicReference<GenreSnapshot> snapshot = new AtomicReference<>();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "genre-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    @Autowired
     public GenresDao(ConnectionManager connectionManager) {
+        this(connectionManager, DEFAULT_REFRESH_PERIOD);
+    }
+
+    @Autowired
+    public GenresDao(ConnectionManager connectionManager,
+                     @Value("${db.genres.refresh-period:1m}") Duration refreshPeriod) {
         this.connectionManager = connectionManager;
+        this.refreshPeriod = refreshPeriod;
     }
 
     private static final String SAVE_SQL = """
@@ -32,22 +65,12 @@ public class GenresDao {
             """;
 
     private static final String DELETE_SQL = """
+            WITH links AS (
+                DELETE FROM movie_to_genre
+                WHERE genre_id = ANY(?)
+            )
             DELETE FROM genres
-            WHERE id = ?
-            """;
-
-    private static final String FIND_BY_ID_SQL = """
-            SELECT id,
-            genre
-            FROM genres
-            WHERE id = ?
-            """;
-
-    private static final String FIND_BY_GENRE_SQL = """
-            SELECT id,
-            genre
-            FROM genres
-            WHERE genre = ?
+            WHERE id = ANY(?)
             """;
 
     private static final String FIND_ALL_SQL = """
@@ -63,11 +86,54 @@ public class GenresDao {
             WHERE mtg.genre_id = ?;
             """;
 
+    // Reuses a genre that differs only in case, otherwise inserts it; the no-op
+    // DO UPDATE makes RETURNING yield the id when a concurrent save won the race.
+    private static final String RESOLVE_ID_SQL = """
+            WITH found AS (
+                SELECT id, genre
+                FROM genres
+                WHERE lower(genre) = lower(?)
+                ORDER BY id
+                LIMIT 1
+            ), inserted AS (
+                INSERT INTO genres(genre)
+                SELECT ?
+                WHERE NOT EXISTS (SELECT 1 FROM found)
+                ON CONFLICT (genre) DO UPDATE SET genre = EXCLUDED.genre
+                RETURNING id, genre
+            )
+            SELECT id, genre FROM found
+            UNION ALL
+            SELECT id, genre FROM inserted
+            """;
+
+    private static final String FIND_MOVIES_PAGE_BY_GENRE_AFTER_SQL = """
+            SELECT m.id,
+            m.title
+            FROM movie_to_genre mtg
+            INNER JOIN movies m on m.id = mtg.movie_id
+            WHERE mtg.genre_id = ? AND mtg.movie_id > ?
+            ORDER BY mtg.movie_id
+            LIMIT ?
+            """;
+
+    private static final String FIND_MOVIES_PAGE_BY_GENRE_BEFORE_SQL = """
+            SELECT m.id,
+            m.title
+            FROM movie_to_genre mtg
+            INNER JOIN movies m on m.id = mtg.movie_id
+            WHERE mtg.genre_id = ? AND mtg.movie_id < ?
+            ORDER BY mtg.movie_id DESC
+            LIMIT ?
+            """;
+
     //  ------------------CREATE------------------
 
     public GenresEntity save(GenresEntity entity) {
         try (var connection = connectionManager.get()) {
-            return save(entity, connection);
+            GenresEntity saved = save(entity, connection);
+            publishSaved(saved);
+            return saved;
         } catch (SQLException e) {
             throw new DaoException(e);
         }
@@ -80,6 +146,7 @@ public class GenresDao {
 
             for (GenresEntity forSave : entities) {
                 GenresEntity saved = save(forSave, connection);
+                publishSaved(saved);
                 resultList.add(saved);
             }
 
@@ -92,53 +159,81 @@ public class GenresDao {
     //  ------------------READ------------------
 
     public GenresEntity findById(int id) {
-        try (var connection = connectionManager.get()) {
+        return snapshot().findById(id);
+    }
 
-            return findById(id, connection);
-        } catch (SQLException e) {
-            throw new DaoException(e);
+    public List<GenresEntity> findByIds(Collection<Integer> ids) {
+        GenreSnapshot current = snapshot();
+        Map<Integer, GenresEntity> genresById = new HashMap<>();
+
+        for (int id : ids) {
+            GenresEntity genresEntity = current.findById(id);
+            if (genresEntity != null) {
+                genresById.put(id, genresEntity);
+            }
         }
+
+        return ByIds.inRequestedOrder(ids, genresById);
     }
 
+    // Matches regardless of case and surrounding or repeated whitespace
     public GenresEntity findByGenreTitle(String genre) {
-        try (var connection = connectionManager.get()) {
-
-            return findByGenreTitle(genre, connection);
-        } catch (SQLException e) {
-            throw new DaoException(e);
-        }
+        return snapshot().findByTitle(genre);
     }
 
     public List<GenresEntity> findAll() {
-        try (var connection = connectionManager.get();
-             var preparedStatement = connection.prepareStatement(FIND_ALL_SQL)) {
-            List<GenresEntity> genresEntitiesList = new ArrayList<>();
-            ResultSet resultSet = preparedStatement.executeQuery();
+        return snapshot().findAll();
+    }
+
+    public List<String> findMoviesByGenre(int id) {
+
+        List<String> movies = new ArrayList<>();
+
+        try (var connection = connectionManager.getForRead();
+             var preparedStatement = connection.prepareStatement(FIND_MOVIES_BY_GENRE_SQL)) {
+
+            preparedStatement.setInt(1, id);
+            var resultSet = preparedStatement.executeQuery();
 
             while (resultSet.next()) {
-                genresEntitiesList.add(buildGenreEntity(resultSet));
+                movies.add(resultSet.getString("title"));
             }
-            return genresEntitiesList;
+
+            return movies;
         } catch (SQLException e) {
             throw new DaoException(e);
         }
     }
 
-    public List<String> findMoviesByGenre(int id) {
+    public CursorPage<GenresEntity> findPage(Integer after, Integer before, int size) {
+        GenreSnapshot current = snapshot();
+        List<GenresEntity> genresEntitiesList = Keyset.isBackward(before)
+                ? current.before(Keyset.cursor(after, before), Keyset.limit(size))
+                : current.after(Keyset.cursor(after, before), Keyset.limit(size));
 
-        List<String> movies = new ArrayList<>();
+        return Keyset.toPage(genresEntitiesList, size, after, before, GenresEntity::getId);
+    }
 
-        try (var connection = connectionManager.get();
-             var preparedStatement = connection.prepareStatement(FIND_MOVIES_BY_GENRE_SQL)) {
+    public CursorPage<String> findMoviesPageByGenre(int id, Integer after, Integer before, int size) {
+        String sql = Keyset.isBackward(before)
+                ? FIND_MOVIES_PAGE_BY_GENRE_BEFORE_SQL
+                : FIND_MOVIES_PAGE_BY_GENRE_AFTER_SQL;
+
+        try (var connection = connectionManager.getForRead();
+             var preparedStatement = connection.prepareStatement(sql)) {
+            List<Map.Entry<Integer, String>> movies = new ArrayList<>();
 
             preparedStatement.setInt(1, id);
+            preparedStatement.setInt(2, Keyset.cursor(after, before));
+            preparedStatement.setInt(3, Keyset.limit(size));
             var resultSet = preparedStatement.executeQuery();
 
             while (resultSet.next()) {
-                movies.add(resultSet.getString("title"));
+                movies.add(Map.entry(resultSet.getInt("id"), resultSet.getString("title")));
             }
 
-            return movies;
+            return Keyset.toPage(movies, size, after, before, Map.Entry::getKey)
+                    .map(Map.Entry::getValue);
         } catch (SQLException e) {
             throw new DaoException(e);
         }
@@ -153,7 +248,9 @@ public class GenresDao {
             preparedStatement.setString(1, entity.getTitle());
             preparedStatement.setInt(2, entity.getId());
 
-            return preparedStatement.executeUpdate() > 0;
+            boolean updated = preparedStatement.executeUpdate() > 0;
+            publish(current -> updated ? current.with(entity) : current.without(List.of(entity.getId())));
+            return updated;
         } catch (SQLException e) {
             throw new DaoException(e);
         }
@@ -162,12 +259,24 @@ public class GenresDao {
     //  ------------------DELETE------------------
 
     public boolean delete(int id) {
+        return delete(List.of(id)) > 0;
+    }
+
+    public int delete(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
         try (var connection = connectionManager.get();
              var preparedStatement = connection.prepareStatement(DELETE_SQL)) {
+            Array idsArray = connection.createArrayOf("integer", ids.toArray());
 
-            preparedStatement.setInt(1, id);
+            preparedStatement.setArray(1, idsArray);
+            preparedStatement.setArray(2, idsArray);
 
-            return preparedStatement.executeUpdate() > 0;
+            int deleted = preparedStatement.executeUpdate();
+            publish(current -> current.without(ids));
+            return deleted;
         } catch (SQLException e) {
             throw new DaoException(e);
         }
@@ -175,56 +284,144 @@ public class GenresDao {
 
     //  ------------------UTIL METHODS------------------
 
-    GenresEntity save(GenresEntity entity, Connection connection) {
-        try (var preparedStatement = connection.prepareStatement(SAVE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+    @PostConstruct
+    public void start() {
+        reload();
+        long period = refreshPeriod.toMillis();
+        refresher.scheduleWithFixedDelay(this::refresh, period, period, TimeUnit.MILLISECONDS);
+    }
 
-            preparedStatement.setString(1, entity.getTitle());
-            preparedStatement.executeUpdate();
-            var generatedKeys = preparedStatement.getGeneratedKeys();
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
 
-            if (generatedKeys.next()) {
-                entity.setId(generatedKeys.getInt("id"));
+    // Replaces the snapshot with the table as it is now. If a write through this
+    // DAO lands while the table is being read, the reload is dropped rather than
+    // undo that write; the next one catches up.
+    public void reload() {
+        GenreSnapshot before = snapshot.get();
+        GenreSnapshot loaded = GenreSnapshot.of(loadAll());
+
+        if (!snapshot.compareAndSet(before, loaded)) {
+            log.debug("Genre snapshot reload raced with a write and was dropped");
+        }
+    }
+
+    // Resolves genre titles to ids, creating missing genres on the given
+    // connection. Genres created inside an open transaction are not published
+    // until the caller commits and hands them to remember().
+    Map<String, Integer> resolveIds(Collection<String> genres, Connection connection) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        boolean committed = connection.getAutoCommit();
+        GenreSnapshot current = snapshot();
+
+        for (String genre : genres) {
+            if (ids.containsKey(genre)) {
+                continue;
             }
 
-            return entity;
-        } catch (SQLException e) {
-            throw new DaoException(e);
+            GenresEntity genresEntity = current.findByTitle(genre);
+
+            if (genresEntity == null) {
+                genresEntity = resolve(clean(genre), connection);
+                if (committed) {
+                    GenresEntity resolved = genresEntity;
+                    current = publish(snapshot -> snapshot.with(resolved));
+                }
+            }
+            ids.put(genre, genresEntity.getId());
         }
+        return ids;
     }
 
-    GenresEntity findByGenreTitle(String genre, Connection connection) {
-        GenresEntity genresEntity = null;
+    void remember(Map<String, Integer> ids) {
+        ids.forEach((genre, id) -> publish(current -> current.findById(id) == null
+                ? current.with(new GenresEntity(id, clean(genre)))
+                : current));
+    }
 
-        try (var preparedStatement = connection.prepareStatement(FIND_BY_GENRE_SQL)) {
-            preparedStatement.setString(1, genre);
+    private GenresEntity resolve(String genre, Connection connection) throws SQLException {
+        try (var preparedStatement = connection.prepareStatement(RESOLVE_ID_SQL)) {
 
+            preparedStatement.setString(1, genre);
+            preparedStatement.setString(2, genre);
             ResultSet resultSet = preparedStatement.executeQuery();
 
-            if (resultSet.next()) {
-                genresEntity = buildGenreEntity(resultSet);
+            if (!resultSet.next()) {
+                throw new SQLException("Genre '%s' was neither found nor inserted".formatted(genre));
             }
+            return buildGenreEntity(resultSet);
+        }
+    }
 
-            return genresEntity;
+    private GenreSnapshot snapshot() {
+        GenreSnapshot current = snapshot.get();
 
-        } catch (SQLException e) {
-            throw new DaoException(e);
+        if (current == null) {
+            reload();
+            current = snapshot.get();
         }
+        return current;
+    }
+
+    // Applies a change to the loaded snapshot; before the first load there is
+    // nothing to change, the load will read the committed row
+    private GenreSnapshot publish(UnaryOperator<GenreSnapshot> change) {
+        return snapshot.updateAndGet(current -> current == null ? null : change.apply(current));
     }
 
-    private GenresEntity findById(int id, Connection connection) {
-        GenresEntity genresEntity = null;
+    private void publishSaved(GenresEntity saved) {
+        if (saved.getId() != null) {
+            publish(current -> current.with(saved));
+        }
+    }
 
-        try (var preparedStatement = connection.prepareStatement(FIND_BY_ID_SQL)) {
+    private void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Genre snapshot refresh failed", e);
+        }
+    }
 
-            preparedStatement.setInt(1, id);
+    // From the primary: a lagging replica would hand back a snapshot older than
+    // the writes it is meant to catch up with
+    private List<GenresEntity> loadAll() {
+        try (var connection = connectionManager.get();
+             var preparedStatement = connection.prepareStatement(FIND_ALL_SQL)) {
+            List<GenresEntity> genresEntitiesList = new ArrayList<>();
             ResultSet resultSet = preparedStatement.executeQuery();
 
-            if (resultSet.next()) {
-                genresEntity = buildGenreEntity(resultSet);
+            while (resultSet.next()) {
+                genresEntitiesList.add(buildGenreEntity(resultSet));
             }
+            return genresEntitiesList;
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
 
-            return genresEntity;
+    private static String clean(String genre) {
+        return genre.strip().replaceAll("\\s+", " ");
+    }
+
+    static String normalize(String genre) {
+        return clean(genre).toLowerCase(Locale.ROOT);
+    }
+
+    GenresEntity save(GenresEntity entity, Connection connection) {
+        try (var preparedStatement = connection.prepareStatement(SAVE_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
+            preparedStatement.setString(1, entity.getTitle());
+            preparedStatement.executeUpdate();
+            var generatedKeys = preparedStatement.getGeneratedKeys();
+
+            if (generatedKeys.next()) {
+                entity.setId(generatedKeys.getInt("id"));
+            }
+
+            return entity;
         } catch (SQLException e) {
             throw new DaoException(e);
         }
@@ -0,0 +1,52 @@
+package com.example.cinema.dao;
+
+import com.example.cinema.model.dto.CursorPage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+// Keyset pagination over a serial id. Pages are read with "id > after ORDER BY id"
+// or "id < before ORDER BY id DESC" and one extra row, which tells whether
+// another page exists in that direction without counting the table.
+final class Keyset {
+    private Keyset() {
+    }
+
+    static boolean isBackward(Integer before) {
+        return before != null;
+    }
+
+    static int cursor(Integer after, Integer before) {
+        return isBackward(before) ? before : Objects.requireNonNullElse(after, 0);
+    }
+
+    static int limit(int size) {
+        return size + 1;
+    }
+
+    static <T> CursorPage<T> toPage(List<T> rows, int size, Integer after, Integer before, ToIntFunction<T> id) {
+        boolean more = rows.size() > size;
+        List<T> items = new ArrayList<>(more ? rows.subList(0, size) : rows);
+
+        if (items.isEmpty()) {
+            return new CursorPage<>(List.of(), null, null, size);
+        }
+
+        if (isBackward(before)) {
+            Collections.reverse(items);
+            return new CursorPage<>(items,
+                    more ? id.applyAsInt(items.get(0)) : null,
+                    id.applyAsInt(items.get(items.size() - 1)),
+                    size);
+        }
+
+        boolean fromStart = after == null || after <= 0;
+        return new CursorPage<>(items,
+                fromStart ? null : id.applyAsInt(items.get(0)),
+                more ? id.applyAsInt(items.get(items.size() - 1)) : null,
+                size);
+    }
+}
@@ -1,25 +1,46 @@
 package com.example.cinema.dao;
 
+import com.example.cinema.exception.BadRequestException;
 import com.example.cinema.exception.DaoException;
-import com.example.cinema.model.entity.GenresEntity;
+import com.example.cinema.model.dto.CursorPage;
+import com.example.cinema.model.dto.FilterPage;
+import com.example.cinema.model.dto.MovieFilter;
+import com.example.cinema.model.dto.MoviesPatchDto;
+import com.example.cinema.model.dto.SearchPage;
 import com.example.cinema.model.entity.MoviesEntity;
 import com.example.cinema.util.connection.pool.ConnectionManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.sql.*;
 import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @Component
 public class MoviesDao {
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final int BATCH_SIZE = 1000;
+
     private final GenresDao genresDao;
     private final ConnectionManager connectionManager;
+    private final int fetchSize;
 
-    @Autowired
     public MoviesDao(GenresDao genresDao, ConnectionManager connectionManager) {
+        this(genresDao, connectionManager, DEFAULT_FETCH_SIZE);
+    }
+
+    @Autowired
+    public MoviesDao(GenresDao genresDao,
+                     ConnectionManager connectionManager,
+                     @Value("${db.fetch-size:500}") int fetchSize) {
         this.genresDao = genresDao;
         this.connectionManager = connectionManager;
+        this.fetchSize = fetchSize;
     }
 
     private static final String SAVE_SQL = """
@@ -33,50 +54,177 @@ public class MoviesDao {
                 release_date = ?,
                 director = ?,
                 duration_minutes = ?,
-                description = ?
-            WHERE id = ?
+                description = ?,
+                version = version + 1
+            WHERE id = ? AND version = ?
+            RETURNING version
             """;
 
+    // One statement, so links and movies go together or not at all. The
+    // movie_to_genre foreign key is checked at the end of the statement,
+    // after the CTE has removed the links.
     private static final String DELETE_SQL = """
-            DELETE FROM movie_to_genre
-            WHERE movie_id = (SELECT id FROM movies WHERE id = ?);
-                        
-            DELETE FROM movies WHERE id = ?;
+            WITH links AS (
+                DELETE FROM movie_to_genre
+                WHERE movie_id = ANY(?)
+            )
+            DELETE FROM movies
+            WHERE id = ANY(?)
+            """;
+
+    // Drops links that are no longer wanted and adds the missing ones; links
+    // that stay are not written at all
+    private static final String REPLACE_GENRE_LINKS_SQL = """
+            WITH removed AS (
+                DELETE FROM movie_to_genre
+                WHERE movie_id = ? AND genre_id <> ALL(?)
+            )
+            INSERT INTO movie_to_genre(movie_id, genre_id)
+            SELECT ?, unnest(?::integer[])
+            ON CONFLICT (movie_id, genre_id) DO NOTHING
             """;
 
     private static final String FIND_BY_ID_SQL = """
-            SELECT id,
-            title,
-            release_date,
-            director,
-            duration_minutes,
-            description
-            FROM movies
-            WHERE id = ?
+            SELECT m.id,
+            m.title,
+            m.release_date,
+            m.director,
+            m.duration_minutes,
+            m.description,
+            m.version,
+            array_remove(array_agg(g.genre ORDER BY g.id), NULL) AS genres
+            FROM movies m
+            LEFT JOIN movie_to_genre mtg on m.id = mtg.movie_id
+            LEFT JOIN genres g on g.id = mtg.genre_id
+            WHERE m.id = ?
+            GROUP BY m.id
+            """;
+
+    private static final String FIND_BY_IDS_SQL = """
+            SELECT m.id,
+            m.title,
+            m.release_date,
+            m.director,
+            m.duration_minutes,
+            m.description,
+            m.version,
+            array_remove(array_agg(g.genre ORDER BY g.id), NULL) AS genres
+            FROM movies m
+            LEFT JOIN movie_to_genre mtg on m.id = mtg.movie_id
+            LEFT JOIN genres g on g.id = mtg.genre_id
+            WHERE m.id = ANY(?)
+            GROUP BY m.id
             """;
 
+    private static final String FIND_TITLES_SQL = "SELECT id, title FROM movies";
+
     private static final String FIND_ALL_SQL = """
-            SELECT id,
-            title,
-            release_date,
-            director,
-            duration_minutes,
-            description
-            FROM movies
+            SELECT m.id,
+            m.title,
+            m.release_date,
+            m.director,
+            m.duration_minutes,
+            m.description,
+            m.version,
+            array_remove(array_agg(g.genre ORDER BY g.id), NULL) AS genres
+            FROM movies m
+            LEFT JOIN movie_to_genre mtg on m.id = mtg.movie_id
+            LEFT JOIN genres g on g.id = mtg.genre_id
+            GROUP BY m.id
+            ORDER BY m.id
+            """;
+
+    private static final String FIND_PAGE_SQL = """
+            SELECT m.id,
+            m.title,
+            m.release_date,
+            m.director,
+            m.duration_minutes,
+            m.description,
+            m.version,
+            array_remove(array_agg(g.genre ORDER BY g.id), NULL) AS genres
+            FROM (SELECT id, title, release_date, director, duration_minutes, description, version
+                  FROM movies
+                  WHERE id %s ?
+                  ORDER BY id %s
+                  LIMIT ?) m
+            LEFT JOIN movie_to_genre mtg on m.id = mtg.movie_id
+            LEFT JOIN genres g on g.id = mtg.genre_id
+            GROUP BY m.id, m.title, m.release_date, m.director, m.duration_minutes, m.description, m.version
+            ORDER BY m.id %s
+            """;
+
+    private static final String FIND_PAGE_AFTER_SQL = FIND_PAGE_SQL.formatted(">", "ASC", "ASC");
+
+    private static final String FIND_PAGE_BEFORE_SQL = FIND_PAGE_SQL.formatted("<", "DESC", "DESC");
+
+    // Matches come from the GIN index on search_vector; ranking only touches the
+    // matching rows. Pages continue below the (rank, id) of the last row shown.
+    private static final String SEARCH_SQL = """
+            SELECT m.id,
+            m.title,
+            m.release_date,
+            m.director,
+            m.duration_minutes,
+            m.description,
+            m.version,
+            array_remove(array_agg(g.genre ORDER BY g.id), NULL) AS genres,
+            m.rank
+            FROM (SELECT id, title, release_date, director, duration_minutes, description, version,
+                         ts_rank(search_vector, query) AS rank
+                  FROM movies, websearch_to_tsquery('english', ?) query
+                  WHERE search_vector @@ query
+                    AND (ts_rank(search_vector, query), id) < (?, ?)
+                  ORDER BY rank DESC, id DESC
+                  LIMIT ?) m
+            LEFT JOIN movie_to_genre mtg on m.id = mtg.movie_id
+            LEFT JOIN genres g on g.id = mtg.genre_id
+            GROUP BY m.id, m.title, m.release_date, m.director, m.duration_minutes, m.description, m.version, m.rank
+            ORDER BY m.rank DESC, m.id DESC
             """;
 
+    // Filter statements are assembled from fixed fragments in a fixed order, one
+    // per criterion that is set, so the same combination of criteria always
+    // produces the same text and reuses its prepared plan. Values, including the
+    // genre ids, are always bound.
+    private static final String FILTER_SQL = """
+            SELECT m.id,
+            m.title,
+            m.release_date,
+            m.director,
+            m.duration_minutes,
+            m.description,
+            m.version,
+            array_remove(array_agg(g.genre ORDER BY g.id), NULL) AS genres
+            FROM (SELECT id, title, release_date, director, duration_minutes, description, version
+                  FROM movies m
+                  WHERE true%s
+                  ORDER BY %s
+                  LIMIT ?) m
+            LEFT JOIN movie_to_genre mtg on m.id = mtg.movie_id
+            LEFT JOIN genres g on g.id = mtg.genre_id
+            GROUP BY m.id, m.title, m.release_date, m.director, m.duration_minutes, m.description, m.version
+            ORDER BY %s
+            """;
+
+    private static final String FILTER_ANY_GENRE = """
+             AND EXISTS (SELECT 1 FROM movie_to_genre f WHERE f.movie_id = m.id AND f.genre_id = ANY(?))""";
+
+    private static final String FILTER_ALL_GENRES = """
+             AND m.id IN (SELECT f.movie_id FROM movie_to_genre f WHERE f.genre_id = ANY(?)
+                          GROUP BY f.movie_id HAVING count(*) = ?)""";
+
+    private static final String FILTER_RELEASE_DATE = " AND m.release_date BETWEEN ? AND ?";
+
+    private static final String FILTER_DURATION = " AND m.duration_minutes BETWEEN ? AND ?";
+
+    private static final String FILTER_DIRECTOR = " AND m.director = ?";
+
     private static final String MOVIE_TO_GENRE = """
             INSERT INTO movie_to_genre (movie_id, genre_id)
             VALUES (?, ?)
             """;
 
-    private static final String FIND_MOVIE_GENRES = """
-            SELECT g.genre
-            FROM genres g
-            INNER JOIN movie_to_genre mtg on g.id = mtg.genre_id
-            WHERE mtg.movie_id = ?
-            """;
-
     //  ------------------CREATE------------------
 
     public MoviesEntity save(MoviesEntity entity) {
@@ -89,16 +237,21 @@ public class MoviesDao {
     }
 
     public List<MoviesEntity> save(List<MoviesEntity> entities) {
-        List<MoviesEntity> resultList = new ArrayList<>();
-
         try (var connection = connectionManager.get()) {
-
-            for (MoviesEntity forSave : entities) {
-                MoviesEntity saved = save(forSave, connection);
-                resultList.add(saved);
+            connection.setAutoCommit(false);
+
+            try {
+                insertMovies(entities, connection);
+                Map<String, Integer> genreIds = genresDao.resolveIds(distinctGenres(entities), connection);
+                linkMoviesToGenres(entities, genreIds, connection);
+                connection.commit();
+
+                genresDao.remember(genreIds);
+                return entities;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
             }
-
-            return resultList;
         } catch (SQLException e) {
             throw new DaoException(e);
         }
@@ -109,14 +262,14 @@ public class MoviesDao {
     public MoviesEntity findById(int id) {
         MoviesEntity moviesEntity = null;
 
-        try (var connection = connectionManager.get();
+        try (var connection = connectionManager.getForRead();
              var preparedStatement = connection.prepareStatement(FIND_BY_ID_SQL)) {
 
             preparedStatement.setInt(1, id);
             var resultSet = preparedStatement.executeQuery();
 
             if (resultSet.next()) {
-                moviesEntity = buildMoviesEntity(resultSet, connection);
+                moviesEntity = buildMoviesEntity(resultSet);
             }
 
             return moviesEntity;
@@ -125,15 +278,39 @@ public class MoviesDao {
         }
     }
 
+    // Movies come back in the order of the requested ids; unknown ids are skipped
+    public List<MoviesEntity> findByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try (var connection = connectionManager.getForRead();
+             var preparedStatement = connection.prepareStatement(FIND_BY_IDS_SQL)) {
+            Map<Integer, MoviesEntity> moviesById = new HashMap<>();
+
+            preparedStatement.setArray(1, connection.createArrayOf("integer", ids.toArray()));
+            var resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                MoviesEntity moviesEntity = buildMoviesEntity(resultSet);
+                moviesById.put(moviesEntity.getId(), moviesEntity);
+            }
+
+            return ByIds.inRequestedOrder(ids, moviesById);
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
     public List<MoviesEntity> findAll() {
         List<MoviesEntity> movies = new ArrayList<>();
 
-        try (var connection = connectionManager.get();
+        try (var connection = connectionManager.getForRead();
              var preparedStatement = connection.prepareStatement(FIND_ALL_SQL)) {
             var resultSet = preparedStatement.executeQuery();
 
             while (resultSet.next()) {
-                movies.add(buildMoviesEntity(resultSet, connection));
+                movies.add(buildMoviesEntity(resultSet));
             }
 
             return movies;
@@ -142,8 +319,178 @@ public class MoviesDao {
         }
     }
 
+    // The driver only uses a server-side cursor (and honours the fetch size)
+    // inside a transaction, so rows arrive in batches of fetchSize instead of
+    // being buffered in full before the first one is handed to the action.
+    public void streamAll(Consumer<? super MoviesEntity> action) {
+        try (var connection = connectionManager.getForRead()) {
+            connection.setAutoCommit(false);
+
+            try (var preparedStatement = connection.prepareStatement(FIND_ALL_SQL)) {
+                preparedStatement.setFetchSize(fetchSize);
+                var resultSet = preparedStatement.executeQuery();
+
+                while (resultSet.next()) {
+                    action.accept(buildMoviesEntity(resultSet));
+                }
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    // From the primary, so the titles include every write committed before the
+    // call; MovieTitleIndex relies on that when it rebuilds
+    public void streamTitles(BiConsumer<Integer, String> action) {
+        try (var connection = connectionManager.get()) {
+            connection.setAutoCommit(false);
+
+            try (var preparedStatement = connection.prepareStatement(FIND_TITLES_SQL)) {
+                preparedStatement.setFetchSize(fetchSize);
+                var resultSet = preparedStatement.executeQuery();
+
+                while (resultSet.next()) {
+                    action.accept(resultSet.getInt(1), resultSet.getString(2));
+                }
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    public CursorPage<MoviesEntity> findPage(Integer after, Integer before, int size) {
+        List<MoviesEntity> movies = new ArrayList<>();
+        String sql = Keyset.isBackward(before) ? FIND_PAGE_BEFORE_SQL : FIND_PAGE_AFTER_SQL;
+
+        try (var connection = connectionManager.getForRead();
+             var preparedStatement = connection.prepareStatement(sql)) {
+
+            preparedStatement.setInt(1, Keyset.cursor(after, before));
+            preparedStatement.setInt(2, Keyset.limit(size));
+            var resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                movies.add(buildMoviesEntity(resultSet));
+            }
+
+            return Keyset.toPage(movies, size, after, before, MoviesEntity::getId);
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    public SearchPage<MoviesEntity> search(String query, int limit, String cursor) {
+        float afterRank = Float.POSITIVE_INFINITY;
+        int afterId = Integer.MAX_VALUE;
+
+        if (cursor != null) {
+            String[] rankAndId = cursor.split(":", 2);
+            try {
+                afterRank = Float.parseFloat(rankAndId[0]);
+                afterId = Integer.parseInt(rankAndId[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw BadRequestException.invalidCursor(cursor);
+            }
+        }
+
+        try (var connection = connectionManager.getForRead();
+             var preparedStatement = connection.prepareStatement(SEARCH_SQL)) {
+            List<MoviesEntity> movies = new ArrayList<>();
+            float lastRank = 0;
+            boolean more = false;
+
+            preparedStatement.setString(1, query);
+            preparedStatement.setFloat(2, afterRank);
+            preparedStatement.setInt(3, afterId);
+            preparedStatement.setInt(4, Keyset.limit(limit));
+            var resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                if (movies.size() == limit) {
+                    more = true;
+                    break;
+                }
+                movies.add(buildMoviesEntity(resultSet));
+                lastRank = resultSet.getFloat("rank");
+            }
+
+            String nextCursor = more
+                    ? lastRank + ":" + movies.get(movies.size() - 1).getId()
+                    : null;
+
+            return new SearchPage<>(query, movies, nextCursor, limit);
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    public FilterPage<MoviesEntity> findByFilter(MovieFilter filter, int size, String cursor) {
+        MovieFilter.Sort sort = filter.getSort();
+        StringBuilder where = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+
+        try (var connection = connectionManager.getForRead()) {
+            if (filter.hasGenres()) {
+                Integer[] genreIds = filter.getGenreIds().stream().distinct().toArray(Integer[]::new);
+                params.add(connection.createArrayOf("integer", genreIds));
+                if (filter.getGenreMatch() == MovieFilter.GenreMatch.ALL) {
+                    where.append(FILTER_ALL_GENRES);
+                    params.add(genreIds.length);
+                } else {
+                    where.append(FILTER_ANY_GENRE);
+                }
+            }
+            if (filter.hasReleaseDateRange()) {
+                where.append(FILTER_RELEASE_DATE);
+                params.add(Objects.requireNonNullElse(filter.getReleasedFrom(), LocalDate.MIN));
+                params.add(Objects.requireNonNullElse(filter.getReleasedTo(), LocalDate.MAX));
+            }
+            if (filter.hasDurationRange()) {
+                where.append(FILTER_DURATION);
+                params.add(Objects.requireNonNullElse(filter.getMinDuration(), 0));
+                params.add(Objects.requireNonNullElse(filter.getMaxDuration(), Integer.MAX_VALUE));
+            }
+            if (filter.getDirector() != null) {
+                where.append(FILTER_DIRECTOR);
+                params.add(filter.getDirector());
+            }
+            if (cursor != null) {
+                where.append(keysetPredicate(sort));
+                params.addAll(parseFilterCursor(sort, cursor));
+            }
+            params.add(Keyset.limit(size));
+
+            String sql = FILTER_SQL.formatted(where, orderBy(sort), orderBy(sort));
+            List<MoviesEntity> movies = new ArrayList<>();
+
+            try (var preparedStatement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.size(); i++) {
+                    preparedStatement.setObject(i + 1, params.get(i));
+                }
+                var resultSet = preparedStatement.executeQuery();
+
+                while (resultSet.next()) {
+                    movies.add(buildMoviesEntity(resultSet));
+                }
+            }
+
+            boolean more = movies.size() > size;
+            List<MoviesEntity> items = more ? new ArrayList<>(movies.subList(0, size)) : movies;
+            String nextCursor = more ? filterCursor(sort, items.get(items.size() - 1)) : null;
+
+            return new FilterPage<>(filter, items, nextCursor, size);
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
     //  ------------------UPDATE------------------
 
+    // Returns false when the id is unknown or the entity's version is stale
     public boolean update(MoviesEntity entity) {
         try (var connection = connectionManager.get();
              var preparedStatement = connection.prepareStatement(UPDATE_SQL)) {
@@ -154,9 +501,43 @@ public class MoviesDao {
             preparedStatement.setInt(4, entity.getDurationMinutes());
             preparedStatement.setString(5, entity.getDescription());
             preparedStatement.setInt(6, entity.getId());
+            preparedStatement.setInt(7, entity.getVersion());
+            var resultSet = preparedStatement.executeQuery();
 
-            return preparedStatement.executeUpdate() > 0;
+            if (resultSet.next()) {
+                entity.setVersion(resultSet.getInt("version"));
+                return true;
+            }
+            return false;
+
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    // Writes only the fields present in the patch and moves the version on,
+    // provided nobody else has done so since the client read the movie.
+    // Returns false when the id is unknown or the version is stale.
+    public boolean patch(int id, MoviesPatchDto patch) {
+        try (var connection = connectionManager.get()) {
+            connection.setAutoCommit(false);
 
+            try {
+                boolean patched = updateChangedColumns(id, patch, connection);
+                Map<String, Integer> genreIds = Map.of();
+
+                if (patched && patch.getGenres() != null) {
+                    genreIds = genresDao.resolveIds(patch.getGenres(), connection);
+                    replaceGenreLinks(id, new LinkedHashSet<>(genreIds.values()), connection);
+                }
+                connection.commit();
+
+                genresDao.remember(genreIds);
+                return patched;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             throw new DaoException(e);
         }
@@ -165,20 +546,63 @@ public class MoviesDao {
     //  ------------------DELETE------------------
 
     public boolean delete(int id) {
+        return delete(List.of(id)) > 0;
+    }
+
+    public int delete(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
         try (var connection = connectionManager.get();
              var preparedStatement = connection.prepareStatement(DELETE_SQL)) {
+            Array idsArray = connection.createArrayOf("integer", ids.toArray());
 
-            preparedStatement.setInt(1, id);
-            preparedStatement.setInt(2, id);
+            preparedStatement.setArray(1, idsArray);
+            preparedStatement.setArray(2, idsArray);
 
-            return preparedStatement.executeUpdate() > 0;
+            return preparedStatement.executeUpdate();
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw new DaoException(e);
         }
     }
 
     //  ------------------UTIL METHODS------------------
 
+    private static String orderBy(MovieFilter.Sort sort) {
+        return switch (sort) {
+            case ID -> "m.id";
+            case RELEASE_DATE -> "m.release_date, m.id";
+            case RELEASE_DATE_DESC -> "m.release_date DESC, m.id DESC";
+        };
+    }
+
+    private static String keysetPredicate(MovieFilter.Sort sort) {
+        return switch (sort) {
+            case ID -> " AND m.id > ?";
+            case RELEASE_DATE -> " AND (m.release_date, m.id) > (?, ?)";
+            case RELEASE_DATE_DESC -> " AND (m.release_date, m.id) < (?, ?)";
+        };
+    }
+
+    private static String filterCursor(MovieFilter.Sort sort, MoviesEntity last) {
+        return sort == MovieFilter.Sort.ID
+                ? String.valueOf(last.getId())
+                : last.getReleaseDate() + ":" + last.getId();
+    }
+
+    private static List<Object> parseFilterCursor(MovieFilter.Sort sort, String cursor) {
+        try {
+            if (sort == MovieFilter.Sort.ID) {
+                return List.of(Integer.parseInt(cursor));
+            }
+            String[] dateAndId = cursor.split(":", 2);
+            return List.of(LocalDate.parse(dateAndId[0]), Integer.parseInt(dateAndId[1]));
+        } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw BadRequestException.invalidCursor(cursor);
+        }
+    }
+
     private MoviesEntity save(MoviesEntity entity, Connection connection) {          //set autocommit(false) // commit - rollback
         try (var preparedStatement = connection.prepareStatement(SAVE_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -195,11 +619,9 @@ public class MoviesDao {
                 entity.setId(generatedKeys.getInt("id"));
             }
 
-            for (String genre : entity.getGenres()) {
-                int genreId = findOrCreateGenreId(genre, connection);
-                if (genreId > 0) {
-                    linkMovieToGenre(connection, entity.getId(), genreId);
-                }
+            Map<String, Integer> genreIds = genresDao.resolveIds(entity.getGenres(), connection);
+            for (int genreId : new LinkedHashSet<>(genreIds.values())) {
+                linkMovieToGenre(connection, entity.getId(), genreId);
             }
 
             return entity;
@@ -208,39 +630,105 @@ public class MoviesDao {
         }
     }
 
-    private List<String> findMovieGenres(Connection connection, int movieId) {
-        List<String> movieGenres = new ArrayList<>();
+    private static boolean updateChangedColumns(int id, MoviesPatchDto patch, Connection connection) throws SQLException {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("title", patch.getTitle());
+        columns.put("release_date", patch.getReleaseDate());
+        columns.put("director", patch.getDirector());
+        columns.put("duration_minutes", patch.getDurationMinutes());
+        columns.put("description", patch.getDescription());
+        columns.values().removeIf(Objects::isNull);
+
+        StringBuilder sql = new StringBuilder("UPDATE movies SET ");
+        columns.keySet().forEach(column -> sql.append(column).append(" = ?, "));
+        sql.append("version = version + 1 WHERE id = ? AND version = ?");
+
+        try (var preparedStatement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+
+            for (Object value : columns.values()) {
+                preparedStatement.setObject(index++, value);
+            }
+            preparedStatement.setInt(index++, id);
+            preparedStatement.setInt(index, patch.getVersion());
+
+            return preparedStatement.executeUpdate() > 0;
+        }
+    }
+
+    private static void replaceGenreLinks(int movieId, Set<Integer> genreIds, Connection connection) throws SQLException {
+        try (var preparedStatement = connection.prepareStatement(REPLACE_GENRE_LINKS_SQL)) {
+            Array genreIdsArray = connection.createArrayOf("integer", genreIds.toArray());
 
-        try {
-            var preparedStatement = connection.prepareStatement(FIND_MOVIE_GENRES);
             preparedStatement.setInt(1, movieId);
-            var resultSet = preparedStatement.executeQuery();
+            preparedStatement.setArray(2, genreIdsArray);
+            preparedStatement.setInt(3, movieId);
+            preparedStatement.setArray(4, genreIdsArray);
+            preparedStatement.executeUpdate();
+        }
+    }
 
-            while (resultSet.next()) {
-                movieGenres.add(resultSet.getString("genre"));
+    private void insertMovies(List<MoviesEntity> entities, Connection connection) throws SQLException {
+        try (var preparedStatement = connection.prepareStatement(SAVE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            for (int from = 0; from < entities.size(); from += BATCH_SIZE) {
+                List<MoviesEntity> chunk = entities.subList(from, Math.min(from + BATCH_SIZE, entities.size()));
+
+                for (MoviesEntity entity : chunk) {
+                    preparedStatement.setString(1, entity.getTitle());
+                    preparedStatement.setDate(2, Date.valueOf(entity.getReleaseDate()));
+                    preparedStatement.setString(3, entity.getDirector());
+                    preparedStatement.setInt(4, entity.getDurationMinutes());
+                    preparedStatement.setString(5, entity.getDescription());
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+
+                var generatedKeys = preparedStatement.getGeneratedKeys();
+                for (MoviesEntity entity : chunk) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Missing generated id for movie '%s'".formatted(entity.getTitle()));
+                    }
+                    entity.setId(generatedKeys.getInt("id"));
+                }
             }
-            return movieGenres;
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
         }
     }
 
-    private int findOrCreateGenreId(String genre, Connection connection) {
-        Integer id;
-        GenresEntity entity = genresDao.findByGenreTitle(genre, connection);
+    private static Set<String> distinctGenres(List<MoviesEntity> entities) {
+        Set<String> genres = new LinkedHashSet<>();
+        entities.forEach(entity -> genres.addAll(entity.getGenres()));
+        return genres;
+    }
+
+    private void linkMoviesToGenres(List<MoviesEntity> entities, Map<String, Integer> genreIds,
+                                    Connection connection) throws SQLException {
+        try (var preparedStatement = connection.prepareStatement(MOVIE_TO_GENRE)) {
+            int batched = 0;
+
+            for (MoviesEntity entity : entities) {
+                Set<Integer> movieGenreIds = new LinkedHashSet<>();
+                entity.getGenres().forEach(genre -> movieGenreIds.add(genreIds.get(genre)));
+
+                for (int genreId : movieGenreIds) {
+                    preparedStatement.setInt(1, entity.getId());
+                    preparedStatement.setInt(2, genreId);
+                    preparedStatement.addBatch();
 
-        if (Objects.nonNull(entity)) {
-            id = entity.getId();
-        } else {
-            GenresEntity genresEntity = new GenresEntity(null, genre);
-            id = genresDao.save(genresEntity, connection).getId();
+                    if (++batched % BATCH_SIZE == 0) {
+                        preparedStatement.executeBatch();
+                    }
+                }
+            }
+
+            if (batched % BATCH_SIZE != 0) {
+                preparedStatement.executeBatch();
+            }
         }
-        return id;
     }
 
     private void linkMovieToGenre(Connection connection, int movieId, int genreId) {
-        try {
-            var preparedStatement = connection.prepareStatement(MOVIE_TO_GENRE);
+        try (var preparedStatement = connection.prepareStatement(MOVIE_TO_GENRE)) {
 
             preparedStatement.setInt(1, movieId);
             preparedStatement.setInt(2, genreId);
@@ -250,7 +738,7 @@ public class MoviesDao {
         }
     }
 
-    private MoviesEntity buildMoviesEntity(ResultSet resultSet, Connection connection) throws SQLException {
+    private static MoviesEntity buildMoviesEntity(ResultSet resultSet) throws SQLException {
         return new MoviesEntity(
                 resultSet.getInt(1),
                 resultSet.getString(2),
@@ -258,7 +746,8 @@ public class MoviesDao {
                 resultSet.getString(4),
                 resultSet.getInt(5),
                 resultSet.getString(6),
-                findMovieGenres(connection, resultSet.getInt(1))
+                new ArrayList<>(Arrays.asList((String[]) resultSet.getArray(8).getArray())),
+                resultSet.getInt(7)
         );
     }
 }
\ No newline at end of file
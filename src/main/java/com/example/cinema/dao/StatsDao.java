@@ -0,0 +1,168 @@
+package com.example.cinema.dao;
+
+import com.example.cinema.exception.DaoException;
+import com.example.cinema.model.dto.DirectorStatsDto;
+import com.example.cinema.model.dto.GenreStatsDto;
+import com.example.cinema.model.dto.ReleaseYearStatsDto;
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Catalog statistics are read from materialized views rather than grouped over
+// movies per request. The views are refreshed concurrently, so readers keep
+// seeing the previous contents while a refresh runs.
+@Component
+public class StatsDao {
+    private static final long REFRESH_LOCK_KEY = 0x7374617473L; // "stats"
+    private final ConnectionManager connectionManager;
+
+    @Autowired
+    public StatsDao(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    // Cumulative row changes on the tables behind the views, as counted by the
+    // statistics collector. Any difference between two readings means the views
+    // may be stale.
+    private static final String CHANGE_COUNT_SQL = """
+            SELECT coalesce(sum(n_tup_ins + n_tup_upd + n_tup_del), 0)
+            FROM pg_stat_user_tables
+            WHERE schemaname = 'public'
+              AND relname IN ('movies', 'genres', 'movie_to_genre')
+            """;
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?)";
+
+    private static final List<String> REFRESH_SQL = List.of(
+            "REFRESH MATERIALIZED VIEW CONCURRENTLY genre_stats",
+            "REFRESH MATERIALIZED VIEW CONCURRENTLY release_year_stats",
+            "REFRESH MATERIALIZED VIEW CONCURRENTLY director_stats");
+
+    private static final String FIND_GENRE_STATS_SQL = """
+            SELECT genre_id, genre, movies, average_duration::float8
+            FROM genre_stats
+            ORDER BY movies DESC, genre
+            """;
+
+    private static final String FIND_RELEASE_YEAR_STATS_SQL = """
+            SELECT release_year, movies
+            FROM release_year_stats
+            ORDER BY release_year
+            """;
+
+    private static final String FIND_TOP_DIRECTOR_STATS_SQL = """
+            SELECT director, movies
+            FROM director_stats
+            ORDER BY movies DESC, director
+            LIMIT ?
+            """;
+
+    //  ------------------READ------------------
+
+    public List<GenreStatsDto> findGenreStats() {
+        List<GenreStatsDto> stats = new ArrayList<>();
+
+        try (var connection = connectionManager.getForRead();
+             var preparedStatement = connection.prepareStatement(FIND_GENRE_STATS_SQL)) {
+            var resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                double averageDuration = resultSet.getDouble(4);
+                stats.add(new GenreStatsDto(
+                        resultSet.getInt(1),
+                        resultSet.getString(2),
+                        resultSet.getLong(3),
+                        resultSet.wasNull() ? null : averageDuration));
+            }
+
+            return stats;
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    public List<ReleaseYearStatsDto> findReleaseYearStats() {
+        List<ReleaseYearStatsDto> stats = new ArrayList<>();
+
+        try (var connection = connectionManager.getForRead();
+             var preparedStatement = connection.prepareStatement(FIND_RELEASE_YEAR_STATS_SQL)) {
+            var resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                stats.add(new ReleaseYearStatsDto(resultSet.getInt(1), resultSet.getLong(2)));
+            }
+
+            return stats;
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    public List<DirectorStatsDto> findTopDirectorStats(int limit) {
+        List<DirectorStatsDto> stats = new ArrayList<>();
+
+        try (var connection = connectionManager.getForRead();
+             var preparedStatement = connection.prepareStatement(FIND_TOP_DIRECTOR_STATS_SQL)) {
+            preparedStatement.setInt(1, limit);
+            var resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                stats.add(new DirectorStatsDto(resultSet.getString(1), resultSet.getLong(2)));
+            }
+
+            return stats;
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    public long changeCount() {
+        try (var connection = connectionManager.get();
+             var preparedStatement = connection.prepareStatement(CHANGE_COUNT_SQL)) {
+            var resultSet = preparedStatement.executeQuery();
+            resultSet.next();
+
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    //  ------------------UPDATE------------------
+
+    // Every node polls for changes, but only the one holding the advisory lock
+    // refreshes; the others return false instead of running concurrently and
+    // can try again later. The lock is released with the transaction.
+    public boolean refresh() {
+        try (var connection = connectionManager.get()) {
+            connection.setAutoCommit(false);
+
+            try (var lockStatement = connection.prepareStatement(TRY_LOCK_SQL);
+                 var statement = connection.createStatement()) {
+                lockStatement.setLong(1, REFRESH_LOCK_KEY);
+                var resultSet = lockStatement.executeQuery();
+                resultSet.next();
+
+                if (!resultSet.getBoolean(1)) {
+                    connection.rollback();
+                    return false;
+                }
+
+                for (String sql : REFRESH_SQL) {
+                    statement.execute(sql);
+                }
+                connection.commit();
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.example.cinema.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.UUID;
+
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class BadRequestException extends RuntimeException {
 
@@ -34,8 +36,36 @@ public class BadRequestException extends RuntimeException {
         return new BadRequestException("Movie with id '%s' does not exist".formatted(id));
     }
 
+    public static BadRequestException nothingToUpdate() {
+        return new BadRequestException("Nothing to update");
+    }
+
+    public static BadRequestException versionRequired() {
+        return new BadRequestException("The version of the movie being changed is required");
+    }
+
     public static BadRequestException noMoviesFound() {
         return new BadRequestException("No movies found");
     }
 
+    public static BadRequestException tooManyIds(int max) {
+        return new BadRequestException("No more than %s ids can be requested at once".formatted(max));
+    }
+
+    public static BadRequestException importJobDoesNotExist(UUID id) {
+        return new BadRequestException("Import job '%s' does not exist".formatted(id));
+    }
+
+    public static BadRequestException invalidCursor(String cursor) {
+        return new BadRequestException("Invalid cursor '%s'".formatted(cursor));
+    }
+
+    public static BadRequestException invalidPoolSize(int minSize, int maxSize) {
+        return new BadRequestException("Invalid pool size: min=%s, max=%s".formatted(minSize, maxSize));
+    }
+
+    public static BadRequestException poolDoesNotExist(String name) {
+        return new BadRequestException("Connection pool '%s' does not exist".formatted(name));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.cinema.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    public static ConflictException movieVersionConflict(long id, int version) {
+        return new ConflictException(
+                "Movie with id '%s' was changed by someone else since version %s".formatted(id, version));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.cinema.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class ForbiddenException extends RuntimeException {
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+
+    public static ForbiddenException adminTokenRequired() {
+        return new ForbiddenException("A valid admin token is required");
+    }
+}
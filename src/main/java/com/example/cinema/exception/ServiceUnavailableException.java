@@ -0,0 +1,24 @@
+package com.example.cinema.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public static ServiceUnavailableException connectionNotAvailable(Throwable cause) {
+        return new ServiceUnavailableException("No database connection available: " + cause.getMessage(), cause);
+    }
+
+    public static ServiceUnavailableException requestDeadlineExceeded() {
+        return new ServiceUnavailableException("Request deadline exceeded before the database call", null);
+    }
+
+    public static ServiceUnavailableException interrupted(InterruptedException cause) {
+        return new ServiceUnavailableException("Interrupted while waiting for a database connection", cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CatalogStatsDto {
+    private List<GenreStatsDto> genres;
+    private List<ReleaseYearStatsDto> releaseYears;
+    private List<DirectorStatsDto> topDirectors;
+}
@@ -0,0 +1,39 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private List<T> items;
+    private Integer previousCursor; // null on the first page
+    private Integer nextCursor; // null on the last page
+    private int size;
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream()
+                .<R>map(mapper)
+                .toList();
+
+        return new CursorPage<>(mapped, previousCursor, nextCursor, size);
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
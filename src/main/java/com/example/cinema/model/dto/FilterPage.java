@@ -0,0 +1,30 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Filtered results can be sorted by a column other than id, so the cursor is an
+// opaque "value:id" string of the last row shown
+@Data
+@AllArgsConstructor
+public class FilterPage<T> {
+    private MovieFilter filter;
+    private List<T> items;
+    private String nextCursor; // null on the last page
+    private int size;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> FilterPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream()
+                .<R>map(mapper)
+                .toList();
+
+        return new FilterPage<>(filter, mapped, nextCursor, size);
+    }
+}
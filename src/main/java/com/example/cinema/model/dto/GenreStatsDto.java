@@ -0,0 +1,13 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GenreStatsDto {
+    private int genreId;
+    private String genre;
+    private long movies;
+    private Double averageDuration; // null when no movie of the genre has a duration
+}
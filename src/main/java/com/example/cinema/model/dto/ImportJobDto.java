@@ -0,0 +1,28 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class ImportJobDto {
+    public enum Status {
+        QUEUED, COPYING, MERGING, COMPLETED, FAILED
+    }
+
+    private UUID id;
+    private Status status;
+    private long bytesRead;
+    private long totalBytes;
+    private long rowsCopied;
+    private int moviesInserted;
+    private int moviesUpdated;
+    private int genresInserted;
+    private int linksInserted;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
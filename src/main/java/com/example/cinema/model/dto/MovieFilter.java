@@ -0,0 +1,43 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Every criterion is optional; null means "not filtered by"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieFilter {
+    private List<Integer> genreIds;
+    private GenreMatch genreMatch = GenreMatch.ANY;
+    private LocalDate releasedFrom;
+    private LocalDate releasedTo;
+    private Integer minDuration;
+    private Integer maxDuration;
+    private String director;
+    private Sort sort = Sort.ID;
+
+    public enum GenreMatch {
+        ANY, ALL
+    }
+
+    public enum Sort {
+        ID, RELEASE_DATE, RELEASE_DATE_DESC
+    }
+
+    public boolean hasGenres() {
+        return genreIds != null && !genreIds.isEmpty();
+    }
+
+    public boolean hasReleaseDateRange() {
+        return releasedFrom != null || releasedTo != null;
+    }
+
+    public boolean hasDurationRange() {
+        return minDuration != null || maxDuration != null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MovieSuggestionDto {
+    private int id;
+    private String title;
+}
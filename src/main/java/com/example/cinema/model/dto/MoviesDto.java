@@ -17,4 +17,11 @@ public class MoviesDto {
     @NonNull private Integer durationMinutes;
     private String description;
     @NonNull private List<String> genres;
+    // The version the client last read; required to update, absent on new movies
+    private Integer version;
+
+    public MoviesDto(Integer id, String title, LocalDate releaseDate, String director,
+                     Integer durationMinutes, String description, List<String> genres) {
+        this(id, title, releaseDate, director, durationMinutes, description, genres, null);
+    }
 }
@@ -0,0 +1,29 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Fields left null are not changed; version is the one the client last read
+// and is required
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MoviesPatchDto {
+    private String title;
+    private LocalDate releaseDate;
+    private String director;
+    private Integer durationMinutes;
+    private String description;
+    private List<String> genres;
+    private Integer version;
+
+    public boolean isEmpty() {
+        return Stream.of(title, releaseDate, director, durationMinutes, description, genres)
+                .allMatch(field -> field == null);
+    }
+}
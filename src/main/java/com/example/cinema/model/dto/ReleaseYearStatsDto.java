@@ -0,0 +1,11 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReleaseYearStatsDto {
+    private int releaseYear;
+    private long movies;
+}
@@ -0,0 +1,30 @@
+package com.example.cinema.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Search results are ordered by rank, so the cursor is an opaque
+// "rank:id" string rather than a plain id as in CursorPage
+@Data
+@AllArgsConstructor
+public class SearchPage<T> {
+    private String query;
+    private List<T> items;
+    private String nextCursor; // null on the last page
+    private int size;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> SearchPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream()
+                .<R>map(mapper)
+                .toList();
+
+        return new SearchPage<>(query, mapped, nextCursor, size);
+    }
+}
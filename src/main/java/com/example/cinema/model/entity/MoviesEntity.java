@@ -21,6 +21,10 @@ public class MoviesEntity {
     private String description;
     @NonNull
     private List<String> genres;
+    private int version;
 
-
+    public MoviesEntity(Integer id, String title, LocalDate releaseDate, String director,
+                        Integer durationMinutes, String description, List<String> genres) {
+        this(id, title, releaseDate, director, durationMinutes, description, genres, 0);
+    }
 }
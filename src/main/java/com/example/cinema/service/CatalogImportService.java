@@ -0,0 +1,13 @@
+package com.example.cinema.service;
+
+import com.example.cinema.dao.CatalogImportDao;
+import com.example.cinema.model.dto.ImportJobDto;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+public interface CatalogImportService {
+    ImportJobDto submit(Path catalog, CatalogImportDao.Format format);
+
+    ImportJobDto getJob(UUID id);
+}
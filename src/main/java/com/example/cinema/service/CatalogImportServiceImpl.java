@@ -0,0 +1,165 @@
+package com.example.cinema.service;
+
+import com.example.cinema.dao.CatalogImportDao;
+import com.example.cinema.dao.GenresDao;
+import com.example.cinema.exception.BadRequestException;
+import com.example.cinema.model.dto.ImportJobDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Imports run one at a time on a dedicated thread; a reload holds a single
+// primary connection for its whole transaction. The service owns the submitted
+// file and deletes it once the job finishes.
+@Slf4j
+@Component
+public class CatalogImportServiceImpl implements CatalogImportService {
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    private final CatalogImportDao catalogImportDao;
+    private final GenresDao genresDao;
+    private final MovieTitleIndex movieTitleIndex;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public CatalogImportServiceImpl(CatalogImportDao catalogImportDao, GenresDao genresDao,
+                                    MovieTitleIndex movieTitleIndex) {
+        this.catalogImportDao = catalogImportDao;
+        this.genresDao = genresDao;
+        this.movieTitleIndex = movieTitleIndex;
+    }
+
+    @Override
+    public ImportJobDto submit(Path catalog, CatalogImportDao.Format format) {
+        ImportJob job;
+
+        try {
+            job = new ImportJob(UUID.randomUUID(), Files.size(catalog));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        pruneFinishedJobs();
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, catalog, format));
+
+        return job.toDto();
+    }
+
+    @Override
+    public ImportJobDto getJob(UUID id) {
+        ImportJob job = jobs.get(id);
+
+        if (Objects.isNull(job)) {
+            throw BadRequestException.importJobDoesNotExist(id);
+        }
+
+        return job.toDto();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    //  ------------------UTIL METHODS------------------
+
+    private void run(ImportJob job, Path catalog, CatalogImportDao.Format format) {
+        job.start();
+
+        try {
+            CatalogImportDao.Result result = importCatalog(job, catalog, format);
+            job.complete(result);
+            log.info("Catalog import {} completed: {}", job.getId(), job.toDto());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Catalog import {} failed", job.getId(), e);
+            job.fail(e);
+            return;
+        }
+
+        refreshCaches(job);
+    }
+
+    // The merge bypasses the DAOs' own writes, so genres and titles are reloaded
+    // as a whole. The data is committed by now: a failure here must not fail the
+    // job, and the periodic genre refresh catches up on its own.
+    private void refreshCaches(ImportJob job) {
+        try {
+            genresDao.reload();
+            movieTitleIndex.rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Caches were not refreshed after catalog import {}", job.getId(), e);
+        }
+    }
+
+    private CatalogImportDao.Result importCatalog(ImportJob job, Path catalog, CatalogImportDao.Format format)
+            throws IOException {
+        try (InputStream input = new ProgressInputStream(Files.newInputStream(catalog), job)) {
+            return catalogImportDao.importCatalog(input, format);
+        } finally {
+            Files.deleteIfExists(catalog);
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() < MAX_FINISHED_JOBS) {
+            return;
+        }
+
+        jobs.values().stream()
+                .filter(ImportJob::isFinished)
+                .map(ImportJob::getId)
+                .toList()
+                .forEach(jobs::remove);
+    }
+
+    private static final class ProgressInputStream extends FilterInputStream {
+        private final ImportJob job;
+
+        ProgressInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            track(b < 0 ? -1 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            track(read);
+            return read;
+        }
+
+        private void track(int read) {
+            if (read < 0) {
+                job.copied();
+            } else {
+                job.read(read);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.cinema.service;
 
+import com.example.cinema.model.dto.CursorPage;
 import com.example.cinema.model.dto.GenresDto;
 
 import java.util.List;
@@ -7,13 +8,21 @@ import java.util.List;
 public interface GenreService {
     List<GenresDto> getAllGenres();
 
+    CursorPage<GenresDto> getGenresPage(Integer after, Integer before, int size);
+
     GenresDto create(GenresDto genresDto);
 
     GenresDto getGenreById(int id);
 
+    List<GenresDto> getGenresByIds(List<Integer> ids);
+
     void update(int id, GenresDto genresDto);
 
     void delete(int id);
 
+    int deleteGenres(List<Integer> ids);
+
     List<String> findMoviesByGenreId(int id);
+
+    CursorPage<String> findMoviesByGenreId(int id, Integer after, Integer before, int size);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.cinema.service;
 
 import com.example.cinema.dao.GenresDao;
 import com.example.cinema.exception.BadRequestException;
+import com.example.cinema.model.dto.CursorPage;
 import com.example.cinema.model.dto.GenresDto;
 import com.example.cinema.model.entity.GenresEntity;
 import com.example.cinema.util.mapper.GenresMapper;
@@ -35,6 +36,16 @@ public class GenreServiceImpl implements GenreService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<GenresDto> getGenresPage(Integer after, Integer before, int size) {
+        CursorPage<GenresEntity> page = genresDao.findPage(after, before, CursorPage.clampSize(size));
+
+        if (page.getItems().isEmpty() && isFirstPage(after, before)) {
+            throw BadRequestException.noGenresFound();
+        }
+        return page.map(g -> new GenresDto(g.getId(), g.getTitle()));
+    }
+
     @Override
     public GenresDto getGenreById(int id) {
         GenresEntity entity = genresDao.findById(id);
@@ -46,6 +57,18 @@ public class GenreServiceImpl implements GenreService {
         return genresMapper.entityToDto(entity);
     }
 
+    @Override
+    public List<GenresDto> getGenresByIds(List<Integer> ids) {
+        if (ids.size() > CursorPage.MAX_SIZE) {
+            throw BadRequestException.tooManyIds(CursorPage.MAX_SIZE);
+        }
+
+        return genresDao.findByIds(ids)
+                .stream()
+                .map(genresMapper::entityToDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public GenresDto create(GenresDto genresDto) {
         GenresEntity entity = genresDao.save(genresMapper.dtoToEntity(genresDto));
@@ -77,6 +100,15 @@ public class GenreServiceImpl implements GenreService {
         }
     }
 
+    @Override
+    public int deleteGenres(List<Integer> ids) {
+        if (ids.size() > CursorPage.MAX_SIZE) {
+            throw BadRequestException.tooManyIds(CursorPage.MAX_SIZE);
+        }
+
+        return genresDao.delete(ids);
+    }
+
     @Override
     public List<String> findMoviesByGenreId(int id) {
         List<String> movies = genresDao.findMoviesByGenre(id);
@@ -87,4 +119,19 @@ public class GenreServiceImpl implements GenreService {
 
         return movies;
     }
+
+    @Override
+    public CursorPage<String> findMoviesByGenreId(int id, Integer after, Integer before, int size) {
+        CursorPage<String> movies = genresDao.findMoviesPageByGenre(id, after, before, CursorPage.clampSize(size));
+
+        if (movies.getItems().isEmpty() && isFirstPage(after, before)) {
+            throw BadRequestException.noMoviesBySpecifiedGenreId();
+        }
+
+        return movies;
+    }
+
+    private static boolean isFirstPage(Integer after, Integer before) {
+        return after == null && before == null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.example.cinema.service;
+
+import com.example.cinema.dao.CatalogImportDao;
+import com.example.cinema.model.dto.ImportJobDto;
+import com.example.cinema.model.dto.ImportJobDto.Status;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class ImportJob {
+    private final UUID id;
+    private final long totalBytes;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private volatile Status status = Status.QUEUED;
+    private volatile CatalogImportDao.Result result;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    ImportJob(UUID id, long totalBytes) {
+        this.id = id;
+        this.totalBytes = totalBytes;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.COPYING;
+    }
+
+    void read(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    void copied() {
+        status = Status.MERGING;
+    }
+
+    void complete(CatalogImportDao.Result result) {
+        this.result = result;
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(Exception e) {
+        error = String.valueOf(e.getMessage());
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    ImportJobDto toDto() {
+        CatalogImportDao.Result current = result;
+
+        return new ImportJobDto(id, status, bytesRead.get(), totalBytes,
+                current == null ? 0 : current.rowsCopied(),
+                current == null ? 0 : current.moviesInserted(),
+                current == null ? 0 : current.moviesUpdated(),
+                current == null ? 0 : current.genresInserted(),
+                current == null ? 0 : current.linksInserted(),
+                startedAt, finishedAt, error);
+    }
+}
@@ -1,19 +1,42 @@
 package com.example.cinema.service;
 
+import com.example.cinema.model.dto.CursorPage;
+import com.example.cinema.model.dto.FilterPage;
+import com.example.cinema.model.dto.MovieFilter;
+import com.example.cinema.model.dto.MovieSuggestionDto;
 import com.example.cinema.model.dto.MoviesDto;
+import com.example.cinema.model.dto.MoviesPatchDto;
+import com.example.cinema.model.dto.SearchPage;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MovieService {
     List<MoviesDto> getAllMovies();
 
+    CursorPage<MoviesDto> getMoviesPage(Integer after, Integer before, int size);
+
+    FilterPage<MoviesDto> filterMovies(MovieFilter filter, String cursor, int size);
+
+    SearchPage<MoviesDto> search(String query, String cursor, int size);
+
+    List<MovieSuggestionDto> suggest(String prefix, int limit);
+
+    void exportAllMovies(Consumer<? super MoviesDto> consumer);
+
     MoviesDto create(MoviesDto moviesDto);
 
     MoviesDto getMovieById(int id);
 
+    List<MoviesDto> getMoviesByIds(List<Integer> ids);
+
     List<String> getMovieGenres(int id);
 
     void update(int id, MoviesDto moviesDto);
 
+    MoviesDto patch(int id, MoviesPatchDto patch);
+
     void delete(int id);
+
+    int deleteMovies(List<Integer> ids);
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.example.cinema.service;
+
+import com.example.cinema.dao.MoviesDao;
+import com.example.cinema.model.dto.MovieSuggestionDto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+// Movie titles kept in memory for autocomplete, so type-ahead never takes a
+// connection from the pool. Titles live in one array sorted by their normalized
+// form; a prefix lookup is a binary search for the first title not below the
+// prefix followed by a short scan. Readers use whatever snapshot is current,
+// writers build a new one and swap it in with a compare-and-set; no lock is
+// held across the database read of a rebuild.
+@Slf4j
+@Component
+@DependsOn("migrationRunner")
+public class MovieTitleIndex {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key)
+            .thenComparingInt(Entry::id);
+
+    private final MoviesDao moviesDao;
+    private final AtomicReference<Entry[]> entries = new AtomicReference<>(new Entry[0]);
+    // Changes made while a rebuild is loading, replayed onto what it loaded;
+    // null when no rebuild is running
+    private final AtomicReference<Queue<UnaryOperator<Entry[]>>> pending = new AtomicReference<>();
+    // Only ever contended by another rebuild, never by readers or writers
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private record Entry(String key, int id, String title) {
+    }
+
+    @Autowired
+    public MovieTitleIndex(MoviesDao moviesDao) {
+        this.moviesDao = moviesDao;
+    }
+
+    // A put or remove arriving while titles are loaded may or may not be in
+    // what the database returns, so it is replayed on top of the loaded titles
+    // before they are published instead of being lost
+    @PostConstruct
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            Queue<UnaryOperator<Entry[]>> replay = new ConcurrentLinkedQueue<>();
+            pending.set(replay);
+
+            try {
+                List<Entry> loaded = new ArrayList<>();
+                moviesDao.streamTitles((id, title) -> loaded.add(entry(id, title)));
+
+                Entry[] sorted = loaded.toArray(Entry[]::new);
+                Arrays.sort(sorted, ORDER);
+
+                Entry[] current;
+                Entry[] rebuilt;
+                do {
+                    current = entries.get();
+                    rebuilt = sorted;
+                    for (UnaryOperator<Entry[]> change : replay) {
+                        rebuilt = change.apply(rebuilt);
+                    }
+                } while (!entries.compareAndSet(current, rebuilt));
+
+                log.info("Movie title index built with {} titles", rebuilt.length);
+            } finally {
+                pending.compareAndSet(replay, null);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public List<MovieSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        Entry[] snapshot = entries.get();
+        List<MovieSuggestionDto> suggestions = new ArrayList<>(limit);
+
+        for (int i = lowerBound(snapshot, key); i < snapshot.length && suggestions.size() < limit; i++) {
+            if (!snapshot[i].key().startsWith(key)) {
+                break;
+            }
+            suggestions.add(new MovieSuggestionDto(snapshot[i].id(), snapshot[i].title()));
+        }
+
+        return suggestions;
+    }
+
+    public int size() {
+        return entries.get().length;
+    }
+
+    //  ------------------UPDATE------------------
+
+    public void put(int id, String title) {
+        Entry added = entry(id, title);
+
+        apply(snapshot -> {
+            List<Entry> updated = new ArrayList<>(snapshot.length + 1);
+            for (Entry entry : snapshot) {
+                if (entry.id() != id) {
+                    updated.add(entry);
+                }
+            }
+
+            int at = -Collections.binarySearch(updated, added, ORDER) - 1;
+            updated.add(at, added);
+            return updated.toArray(Entry[]::new);
+        });
+    }
+
+    public void remove(Collection<Integer> ids) {
+        Set<Integer> removed = Set.copyOf(ids);
+
+        apply(snapshot -> Arrays.stream(snapshot)
+                .filter(entry -> !removed.contains(entry.id()))
+                .toArray(Entry[]::new));
+    }
+
+    //  ------------------UTIL METHODS------------------
+
+    // Queued before it is applied, so a rebuild whose compare-and-set this
+    // change makes fail finds it when it retries. Changes are idempotent, as
+    // one may be applied both here and in the replay.
+    private void apply(UnaryOperator<Entry[]> change) {
+        Queue<UnaryOperator<Entry[]>> replay = pending.get();
+        if (replay != null) {
+            replay.add(change);
+        }
+        entries.updateAndGet(change);
+    }
+
+    static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(title.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Entry entry(int id, String title) {
+        return new Entry(normalize(title), id, title);
+    }
+
+    private static int lowerBound(Entry[] snapshot, String key) {
+        int low = 0;
+        int high = snapshot.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (snapshot[mid].key().compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+}
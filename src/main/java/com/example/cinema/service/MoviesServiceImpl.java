@@ -2,7 +2,14 @@ package com.example.cinema.service;
 
 import com.example.cinema.dao.MoviesDao;
 import com.example.cinema.exception.BadRequestException;
+import com.example.cinema.exception.ConflictException;
+import com.example.cinema.model.dto.CursorPage;
+import com.example.cinema.model.dto.FilterPage;
+import com.example.cinema.model.dto.MovieFilter;
+import com.example.cinema.model.dto.MovieSuggestionDto;
 import com.example.cinema.model.dto.MoviesDto;
+import com.example.cinema.model.dto.MoviesPatchDto;
+import com.example.cinema.model.dto.SearchPage;
 import com.example.cinema.model.entity.MoviesEntity;
 import com.example.cinema.util.mapper.MoviesMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,17 +17,22 @@ import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Component
 public class MoviesServiceImpl implements MovieService {
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final MoviesDao moviesDao;
     private final MoviesMapper moviesMapper;
+    private final MovieTitleIndex movieTitleIndex;
 
     @Autowired
-    public MoviesServiceImpl(MoviesDao moviesDao, MoviesMapper moviesMapper) {
+    public MoviesServiceImpl(MoviesDao moviesDao, MoviesMapper moviesMapper, MovieTitleIndex movieTitleIndex) {
         this.moviesDao = moviesDao;
         this.moviesMapper = moviesMapper;
+        this.movieTitleIndex = movieTitleIndex;
     }
 
     @Override
@@ -31,9 +43,57 @@ public class MoviesServiceImpl implements MovieService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<MoviesDto> getMoviesPage(Integer after, Integer before, int size) {
+        return moviesDao.findPage(after, before, CursorPage.clampSize(size))
+                .map(moviesMapper::entityToDto);
+    }
+
+    @Override
+    public FilterPage<MoviesDto> filterMovies(MovieFilter filter, String cursor, int size) {
+        if (filter.hasGenres() && filter.getGenreIds().size() > CursorPage.MAX_SIZE) {
+            throw BadRequestException.tooManyIds(CursorPage.MAX_SIZE);
+        }
+        if (filter.getDirector() != null && filter.getDirector().isBlank()) {
+            filter.setDirector(null);
+        }
+        if (filter.getGenreMatch() == null) {
+            filter.setGenreMatch(MovieFilter.GenreMatch.ANY);
+        }
+        if (filter.getSort() == null) {
+            filter.setSort(MovieFilter.Sort.ID);
+        }
+
+        return moviesDao.findByFilter(filter, CursorPage.clampSize(size), cursor)
+                .map(moviesMapper::entityToDto);
+    }
+
+    @Override
+    public SearchPage<MoviesDto> search(String query, String cursor, int size) {
+        int clampedSize = CursorPage.clampSize(size);
+
+        if (query == null || query.isBlank()) {
+            return new SearchPage<>(query, List.of(), null, clampedSize);
+        }
+
+        return moviesDao.search(query.strip(), clampedSize, cursor)
+                .map(moviesMapper::entityToDto);
+    }
+
+    @Override
+    public List<MovieSuggestionDto> suggest(String prefix, int limit) {
+        return movieTitleIndex.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    @Override
+    public void exportAllMovies(Consumer<? super MoviesDto> consumer) {
+        moviesDao.streamAll(entity -> consumer.accept(moviesMapper.entityToDto(entity)));
+    }
+
     @Override
     public MoviesDto create(MoviesDto moviesDto) {
         MoviesEntity entity = moviesDao.save(moviesMapper.dtoToEntity(moviesDto));
+        movieTitleIndex.put(entity.getId(), entity.getTitle());
 
         return moviesMapper.entityToDto(entity);
     }
@@ -49,6 +109,18 @@ public class MoviesServiceImpl implements MovieService {
         return moviesMapper.entityToDto(moviesEntity);
     }
 
+    @Override
+    public List<MoviesDto> getMoviesByIds(List<Integer> ids) {
+        if (ids.size() > CursorPage.MAX_SIZE) {
+            throw BadRequestException.tooManyIds(CursorPage.MAX_SIZE);
+        }
+
+        return moviesDao.findByIds(ids)
+                .stream()
+                .map(moviesMapper::entityToDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<String> getMovieGenres(int id) {
         MoviesEntity moviesEntity = moviesDao.findById(id);// !!!!!!!!!!!!
@@ -58,13 +130,44 @@ public class MoviesServiceImpl implements MovieService {
 
     @Override
     public void update(int id, MoviesDto moviesDto) {
+        if (moviesDto.getVersion() == null) {
+            throw BadRequestException.versionRequired();
+        }
         moviesDto.setId(id);
 
         boolean isUpdated = moviesDao.update(moviesMapper.dtoToEntity(moviesDto));
 
         if (!isUpdated) {
-            throw BadRequestException.movieDoesNotExists(moviesDto.getId());
+            if (Objects.isNull(moviesDao.findById(id))) {
+                throw BadRequestException.movieDoesNotExists(id);
+            }
+            throw ConflictException.movieVersionConflict(id, moviesDto.getVersion());
         }
+
+        movieTitleIndex.put(id, moviesDto.getTitle());
+    }
+
+    @Override
+    public MoviesDto patch(int id, MoviesPatchDto patch) {
+        if (patch.isEmpty()) {
+            throw BadRequestException.nothingToUpdate();
+        }
+        if (patch.getVersion() == null) {
+            throw BadRequestException.versionRequired();
+        }
+
+        if (!moviesDao.patch(id, patch)) {
+            if (Objects.isNull(moviesDao.findById(id))) {
+                throw BadRequestException.movieDoesNotExists(id);
+            }
+            throw ConflictException.movieVersionConflict(id, patch.getVersion());
+        }
+
+        if (patch.getTitle() != null) {
+            movieTitleIndex.put(id, patch.getTitle());
+        }
+
+        return getMovieById(id);
     }
 
     @Override
@@ -74,5 +177,19 @@ public class MoviesServiceImpl implements MovieService {
         if (!isDeleted) {
             throw BadRequestException.movieDoesNotExists(id);
         }
+
+        movieTitleIndex.remove(List.of(id));
+    }
+
+    @Override
+    public int deleteMovies(List<Integer> ids) {
+        if (ids.size() > CursorPage.MAX_SIZE) {
+            throw BadRequestException.tooManyIds(CursorPage.MAX_SIZE);
+        }
+
+        int deleted = moviesDao.delete(ids);
+        movieTitleIndex.remove(ids);
+
+        return deleted;
     }
 }
\ No newline at end of file
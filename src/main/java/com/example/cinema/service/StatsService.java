@@ -0,0 +1,7 @@
+package com.example.cinema.service;
+
+import com.example.cinema.model.dto.CatalogStatsDto;
+
+public interface StatsService {
+    CatalogStatsDto getCatalogStats();
+}
@@ -0,0 +1,88 @@
+package com.example.cinema.service;
+
+import com.example.cinema.dao.StatsDao;
+import com.example.cinema.model.dto.CatalogStatsDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Stats requests only read the materialized views. A background thread checks
+// the change counters of the underlying tables every refresh period and
+// refreshes the views only when something was written since the last refresh,
+// so an idle catalog costs one cheap query per period.
+@Slf4j
+@Component
+@DependsOn("migrationRunner")
+public class StatsServiceImpl implements StatsService {
+    static final int TOP_DIRECTORS = 50;
+
+    private final StatsDao statsDao;
+    private final Duration refreshPeriod;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-stats-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long lastChangeCount = -1;
+
+    @Autowired
+    public StatsServiceImpl(StatsDao statsDao,
+                            @Value("${stats.refresh-period:5s}") Duration refreshPeriod) {
+        this.statsDao = statsDao;
+        this.refreshPeriod = refreshPeriod;
+    }
+
+    @Override
+    public CatalogStatsDto getCatalogStats() {
+        return new CatalogStatsDto(
+                statsDao.findGenreStats(),
+                statsDao.findReleaseYearStats(),
+                statsDao.findTopDirectorStats(TOP_DIRECTORS));
+    }
+
+    @PostConstruct
+    public void start() {
+        long period = refreshPeriod.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshIfChanged, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    //  ------------------UTIL METHODS------------------
+
+    // Runs on the refresher thread only; a failure is logged and retried on the
+    // next period, as an exception would cancel the schedule. When another node
+    // holds the refresh lock, its refresh may have started before these changes
+    // (or may fail), so they stay pending and are retried on the next period.
+    void refreshIfChanged() {
+        try {
+            long changeCount = statsDao.changeCount();
+            if (changeCount == lastChangeCount) {
+                return;
+            }
+
+            long started = System.nanoTime();
+            if (!statsDao.refresh()) {
+                log.debug("Catalog stats are being refreshed by another node, retrying later");
+                return;
+            }
+            lastChangeCount = changeCount;
+            log.debug("Catalog stats refreshed in {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.warn("Catalog stats refresh failed", e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.cinema.util.connection.pool;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.example.cinema.util.connection.pool.PoolEntry.*;
+
+final class ConnectionBag {
+    private static final int THREAD_LOCAL_CAPACITY = 16;
+
+    private final CopyOnWriteArrayList<PoolEntry> shared = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<List<PoolEntry>> threadLocal = ThreadLocal.withInitial(() -> new ArrayList<>(THREAD_LOCAL_CAPACITY));
+    private final SynchronousQueue<PoolEntry> handoff = new SynchronousQueue<>(true);
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    @FunctionalInterface
+    interface EntryCreator {
+        PoolEntry tryCreate() throws SQLException;
+    }
+
+    PoolEntry borrow(long timeoutNanos, EntryCreator creator) throws SQLException, InterruptedException {
+        if (!Thread.currentThread().isVirtual()) {
+            List<PoolEntry> recent = threadLocal.get();
+            for (int i = recent.size() - 1; i >= 0; i--) {
+                PoolEntry entry = recent.remove(i);
+                if (entry.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                    return entry;
+                }
+            }
+        }
+
+        PoolEntry entry = borrowShared();
+        if (entry != null) {
+            return entry;
+        }
+
+        entry = creator.tryCreate();
+        if (entry != null) {
+            return entry;
+        }
+
+        waiters.incrementAndGet();
+        try {
+            entry = borrowShared();
+            if (entry != null) {
+                return entry;
+            }
+
+            long remaining = timeoutNanos;
+            while (remaining > 0) {
+                long startedAt = System.nanoTime();
+                entry = handoff.poll(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null || entry.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                    return entry;
+                }
+                remaining -= System.nanoTime() - startedAt;
+            }
+            return null;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    void requite(PoolEntry entry) {
+        entry.setState(STATE_NOT_IN_USE);
+
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (entry.getState() != STATE_NOT_IN_USE || handoff.offer(entry)) {
+                return;
+            } else if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
+        }
+
+        if (Thread.currentThread().isVirtual()) {
+            return;
+        }
+
+        List<PoolEntry> recent = threadLocal.get();
+        if (recent.size() < THREAD_LOCAL_CAPACITY) {
+            recent.add(entry);
+        }
+    }
+
+    void add(PoolEntry entry) {
+        shared.add(entry);
+
+        while (waiters.get() > 0 && entry.getState() == STATE_NOT_IN_USE && !handoff.offer(entry)) {
+            Thread.yield();
+        }
+    }
+
+    boolean remove(PoolEntry entry) {
+        if (!entry.compareAndSetState(STATE_IN_USE, STATE_REMOVED)
+                && !entry.compareAndSetState(STATE_RESERVED, STATE_REMOVED)) {
+            return false;
+        }
+        shared.remove(entry);
+        return true;
+    }
+
+    boolean reserve(PoolEntry entry) {
+        return entry.compareAndSetState(STATE_NOT_IN_USE, STATE_RESERVED);
+    }
+
+    void unreserve(PoolEntry entry) {
+        if (entry.compareAndSetState(STATE_RESERVED, STATE_NOT_IN_USE)) {
+            while (waiters.get() > 0 && entry.getState() == STATE_NOT_IN_USE && !handoff.offer(entry)) {
+                Thread.yield();
+            }
+        }
+    }
+
+    List<PoolEntry> values(int state) {
+        List<PoolEntry> values = new ArrayList<>();
+        for (PoolEntry entry : shared) {
+            if (entry.getState() == state) {
+                values.add(entry);
+            }
+        }
+        return values;
+    }
+
+    List<PoolEntry> values() {
+        return new ArrayList<>(shared);
+    }
+
+    int getCount(int state) {
+        int count = 0;
+        for (PoolEntry entry : shared) {
+            if (entry.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int getWaitingThreadCount() {
+        return waiters.get();
+    }
+
+    private PoolEntry borrowShared() {
+        for (PoolEntry entry : shared) {
+            if (entry.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.cinema.util.connection.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface ConnectionFactory {
+    Connection open() throws SQLException;
+}
@@ -1,27 +1,37 @@
 package com.example.cinema.util.connection.pool;
 
+import com.example.cinema.exception.ServiceUnavailableException;
+import com.example.cinema.util.request.RequestDeadline;
+import com.example.cinema.util.request.RequestRouting;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+@Slf4j
 @Component
 public final class ConnectionManager {
-    private final String PASSWORD_KEY;
-    private final String USERNAME_KEY;
-    private final String URL_KEY;
-    private final int POOL_SIZE_KEY;
-    private BlockingQueue<Connection> pool;
-    private List<Connection> sourceConnections;
+    private final ConnectionPoolProperties poolProperties;
+    private final ReadRoutingProperties readRoutingProperties;
+    private final ConnectionFactory primaryFactory;
+    private final Function<ReadRoutingProperties.Replica, ConnectionFactory> replicaFactory;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final List<ConnectionPool> replicas = new ArrayList<>();
+    private ConnectionPool pool;
 
     {
         loadDriver();
@@ -32,46 +42,133 @@ public final class ConnectionManager {
             @Value("${db.password}") String PASSWORD_KEY,
             @Value("${db.username}") String USERNAME_KEY,
             @Value("${db.url}") String URL_KEY,
-            @Value("${db.pool.size}") int POOL_SIZE_KEY) {
+            ConnectionPoolProperties poolProperties,
+            ReadRoutingProperties readRoutingProperties) {
 
+        this(poolProperties, readRoutingProperties,
+                () -> DriverManager.getConnection(URL_KEY, USERNAME_KEY, PASSWORD_KEY),
+                replica -> () -> DriverManager.getConnection(replica.getUrl(),
+                        Objects.requireNonNullElse(replica.getUsername(), USERNAME_KEY),
+                        Objects.requireNonNullElse(replica.getPassword(), PASSWORD_KEY)));
+    }
+
+    public ConnectionManager(String PASSWORD_KEY, String USERNAME_KEY, String URL_KEY, int POOL_SIZE_KEY) {
+        this(PASSWORD_KEY, USERNAME_KEY, URL_KEY, ConnectionPoolProperties.fixed(POOL_SIZE_KEY), new ReadRoutingProperties());
+    }
 
-        this.PASSWORD_KEY = PASSWORD_KEY;
-        this.USERNAME_KEY = USERNAME_KEY;
-        this.URL_KEY = URL_KEY;
-        this.POOL_SIZE_KEY = POOL_SIZE_KEY;
+    ConnectionManager(ConnectionPoolProperties poolProperties,
+                      ReadRoutingProperties readRoutingProperties,
+                      ConnectionFactory primaryFactory,
+                      Function<ReadRoutingProperties.Replica, ConnectionFactory> replicaFactory) {
+        this.poolProperties = poolProperties;
+        this.readRoutingProperties = readRoutingProperties;
+        this.primaryFactory = primaryFactory;
+        this.replicaFactory = replicaFactory;
     }
 
     @PostConstruct
     public void initConnectionPool() {
-        var poolSize = POOL_SIZE_KEY;
-        pool = new ArrayBlockingQueue<>(poolSize);
-        sourceConnections = new ArrayList<>(poolSize);
-
-        for (int i = 0; i < poolSize; i++) {
-            var connection = open();
-            var proxyConnection = (Connection) Proxy.newProxyInstance(ConnectionManager.class.getClassLoader(), new Class[]{Connection.class},
-                    (proxy, method, args) -> method.getName().equals("close")
-                            ? pool.add((Connection) proxy)
-                            : method.invoke(connection, args));
-            pool.add(proxyConnection);
-            sourceConnections.add(connection);
+        pool = new ConnectionPool("primary", primaryFactory, poolProperties);
+        pool.start();
+
+        List<ReadRoutingProperties.Replica> replicaProperties = readRoutingProperties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            ReadRoutingProperties.Replica replica = replicaProperties.get(i);
+            ConnectionFactory factory = replicaFactory.apply(replica);
+
+            var replicaPool = new ConnectionPool("replica-" + i, () -> openReadOnly(factory),
+                    poolProperties.withSizes(replica.getMinSize(), replica.getMaxSize()));
+            replicaPool.start();
+            replicas.add(replicaPool);
         }
     }
 
     public Connection get() {
+        RequestRouting.pinToPrimary();
+        return borrow(pool);
+    }
+
+    public Connection getForRead() {
+        if (replicas.isEmpty() || RequestRouting.isPinnedToPrimary()) {
+            return borrow(pool);
+        }
+
+        ConnectionPool replica = selectReplica();
+        try {
+            return borrow(replica);
+        } catch (ServiceUnavailableException e) {
+            if (RequestDeadline.remainingNanos() <= 0) {
+                throw e;
+            }
+            log.warn("Replica pool '{}' unavailable, reading from primary", replica.getName(), e);
+            return borrow(pool);
+        }
+    }
+
+    public Optional<ConnectionPool> findPool(String name) {
+        if (pool.getName().equals(name)) {
+            return Optional.of(pool);
+        }
+        return replicas.stream()
+                .filter(replica -> replica.getName().equals(name))
+                .findFirst();
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    public PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    public List<PoolStats> getReplicaPoolStats() {
+        return replicas.stream()
+                .map(ConnectionPool::getStats)
+                .toList();
+    }
+
+    private Connection borrow(ConnectionPool connectionPool) {
+        long remaining = RequestDeadline.remainingNanos();
+
+        if (remaining <= 0) {
+            throw ServiceUnavailableException.requestDeadlineExceeded();
+        }
+
         try {
-            return pool.take();
+            return connectionPool.borrow(Math.min(remaining, poolProperties.getAcquireTimeout().toNanos()));
+        } catch (SQLTransientConnectionException e) {
+            throw ServiceUnavailableException.connectionNotAvailable(e);
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ServiceUnavailableException.interrupted(e);
+        } catch (SQLException e) {
+            if (connectionPool != pool) {
+                throw ServiceUnavailableException.connectionNotAvailable(e);
+            }
             throw new RuntimeException(e);
         }
     }
 
-    private Connection open() {
+    private ConnectionPool selectReplica() {
+        return switch (readRoutingProperties.getSelection()) {
+            case ROUND_ROBIN -> replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            case LEAST_BUSY -> replicas.stream()
+                    .min(Comparator.comparingInt(replica -> replica.getActiveConnections() + replica.getThreadsWaiting()))
+                    .orElseThrow();
+        };
+    }
+
+    private static Connection openReadOnly(ConnectionFactory factory) throws SQLException {
+        Connection connection = factory.open();
+
         try {
-            return DriverManager.getConnection(URL_KEY, USERNAME_KEY, PASSWORD_KEY);
+            connection.setReadOnly(true);
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            connection.close();
+            throw e;
         }
+        return connection;
     }
 
     private void loadDriver() {
@@ -82,13 +179,9 @@ public final class ConnectionManager {
         }
     }
 
+    @PreDestroy
     public void closePool() {
-        for (Connection sourceConnection : sourceConnections) {
-            try {
-                sourceConnection.close();
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
-            }
-        }
+        replicas.forEach(ConnectionPool::close);
+        pool.close();
     }
-}
\ No newline at end of file
+}
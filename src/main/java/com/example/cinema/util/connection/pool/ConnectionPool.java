@@ -0,0 +1,547 @@
+package com.example.cinema.util.connection.pool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public final class ConnectionPool implements AutoCloseable {
+    private final String name;
+    private final ConnectionFactory connectionFactory;
+    private final ConnectionPoolProperties properties;
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats();
+    private final PoolMetrics metrics = new PoolMetrics();
+
+    private final ConnectionBag bag = new ConnectionBag();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private volatile boolean closed;
+
+    private volatile Size size;
+    private ScheduledExecutorService housekeeper;
+    private ScheduledExecutorService filler;
+
+    // Minimum and maximum are published together so that no reader sees the
+    // new bound of one next to the old bound of the other
+    private record Size(int min, int max) {
+    }
+
+    public ConnectionPool(String name, ConnectionFactory connectionFactory, ConnectionPoolProperties properties) {
+        checkSizes(properties.getMinSize(), properties.getMaxSize());
+
+        this.name = name;
+        this.connectionFactory = connectionFactory;
+        this.properties = properties;
+        this.size = new Size(properties.getMinSize(), properties.getMaxSize());
+    }
+
+    //  ------------------LIFECYCLE------------------
+
+    public void start() {
+        housekeeper = newScheduler(name + "-housekeeper", 1);
+        filler = newScheduler(name + "-filler", Math.max(1, properties.getWarmupParallelism()));
+        warmUp();
+
+        long period = properties.getHousekeepingPeriod().toMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+
+        long leakDetectionThreshold = properties.getLeakDetectionThreshold().toMillis();
+        if (leakDetectionThreshold > 0) {
+            long leakCheckPeriod = Math.max(100, leakDetectionThreshold / 2);
+            housekeeper.scheduleWithFixedDelay(this::detectLeaks, leakCheckPeriod, leakCheckPeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+            filler.shutdownNow();
+        }
+        for (PoolEntry entry : bag.values(PoolEntry.STATE_NOT_IN_USE)) {
+            if (bag.reserve(entry)) {
+                remove(entry);
+            }
+        }
+    }
+
+    private void warmUp() {
+        int minSize = size.min();
+        int eager = Math.min(properties.getInitialSize(), minSize);
+        var eagerOpened = new CountDownLatch(eager);
+
+        for (int i = 0; i < minSize; i++) {
+            CountDownLatch latch = i < eager ? eagerOpened : null;
+            filler.execute(() -> addConnection(properties.getConnectRetryBackoff().toNanos(), latch));
+        }
+
+        try {
+            if (!eagerOpened.await(properties.getWarmupTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("Connection pool '{}' started with {} of {} eager connections, opening the rest in background",
+                        name, getTotalConnections(), eager);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //  ------------------BORROW / RELEASE------------------
+
+    public Connection borrow() throws SQLException, InterruptedException {
+        return borrow(properties.getAcquireTimeout().toNanos());
+    }
+
+    public Connection borrow(long timeoutNanos) throws SQLException, InterruptedException {
+        long startedAt = System.nanoTime();
+        long remaining = timeoutNanos;
+
+        do {
+            if (closed) {
+                throw new SQLException("Connection pool '%s' is closed".formatted(name));
+            }
+
+            PoolEntry entry = bag.borrow(remaining, this::growForWaiter);
+            if (entry == null) {
+                break;
+            }
+
+            long now = System.nanoTime();
+            if (entry.isExpired(maxLifetimeNanos(), now)) {
+                remove(entry);
+            } else if (now - entry.lastAccessed < validateAfterIdleNanos()) {
+                return checkout(entry, startedAt, now);
+            } else if (isValid(entry)) {
+                return checkout(entry, startedAt, System.nanoTime());
+            } else {
+                log.warn("Evicting broken connection from pool '{}' on borrow", name);
+                remove(entry);
+                now = System.nanoTime();
+            }
+            remaining = timeoutNanos - (now - startedAt);
+        } while (remaining > 0);
+
+        metrics.recordTimeout();
+        throw new SQLTransientConnectionException(
+                "Connection pool '%s' exhausted, timed out after %sms"
+                        .formatted(name, TimeUnit.NANOSECONDS.toMillis(timeoutNanos)));
+    }
+
+    void release(PoolEntry entry) {
+        long now = System.nanoTime();
+        endCheckout(entry, now);
+
+        if (closed || entry.isExpired(maxLifetimeNanos(), now)) {
+            remove(entry);
+        } else if (entry.broken || isClosed(entry)) {
+            log.warn("Evicting connection from pool '{}' after a fatal error", name);
+            remove(entry);
+        } else if (tryRetireSurplus()) {
+            if (bag.remove(entry)) {
+                closeQuietly(entry);
+            }
+        } else {
+            entry.lastAccessed = now;
+            bag.requite(entry);
+        }
+    }
+
+    void evict(PoolEntry entry) {
+        endCheckout(entry, System.nanoTime());
+        remove(entry);
+    }
+
+    //  ------------------SIZING------------------
+
+    public void resize(int newMinSize, int newMaxSize) {
+        checkSizes(newMinSize, newMaxSize);
+        size = new Size(newMinSize, newMaxSize);
+
+        for (PoolEntry entry : bag.values(PoolEntry.STATE_NOT_IN_USE)) {
+            if (totalConnections.get() <= newMaxSize) {
+                break;
+            }
+            if (bag.reserve(entry)) {
+                remove(entry);
+            }
+        }
+
+        fillToMinimumInBackground();
+        log.info("Connection pool '{}' resized to min={}, max={}", name, newMinSize, newMaxSize);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinSize() {
+        return size.min();
+    }
+
+    public int getMaxSize() {
+        return size.max();
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getActiveConnections() {
+        return bag.getCount(PoolEntry.STATE_IN_USE);
+    }
+
+    public int getIdleConnections() {
+        return bag.getCount(PoolEntry.STATE_NOT_IN_USE);
+    }
+
+    public int getThreadsWaiting() {
+        return bag.getWaitingThreadCount();
+    }
+
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    public PoolStats getStats() {
+        int total = getTotalConnections();
+        int idleCount = getIdleConnections();
+        Size current = size;
+
+        return PoolStats.builder()
+                .name(name)
+                .minSize(current.min())
+                .maxSize(current.max())
+                .totalConnections(total)
+                .activeConnections(total - idleCount)
+                .idleConnections(idleCount)
+                .threadsWaiting(getThreadsWaiting())
+                .acquisitions(metrics.acquisitions.sum())
+                .acquisitionsPerSecond(metrics.acquisitionsPerSecond())
+                .timeouts(metrics.timeouts.sum())
+                .leaksDetected(metrics.leaksDetected.sum())
+                .acquireWait(metrics.acquireWait.snapshot())
+                .checkoutDuration(metrics.checkoutDuration.snapshot())
+                .statementCacheHits(statementCacheStats.getHits())
+                .statementCacheMisses(statementCacheStats.getMisses())
+                .statementCacheEvictions(statementCacheStats.getEvictions())
+                .build();
+    }
+
+    //  ------------------HOUSEKEEPING------------------
+
+    void housekeep() {
+        try {
+            evictIdleAndExpired();
+            validateIdle();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            log.warn("Housekeeping of connection pool '{}' failed", name, e);
+        }
+    }
+
+    void detectLeaks() {
+        long threshold = properties.getLeakDetectionThreshold().toNanos();
+        long now = System.nanoTime();
+        for (PoolEntry entry : bag.values()) {
+            long borrowedAt = entry.borrowedAt;
+            Throwable borrowTrace = entry.borrowTrace;
+
+            if (borrowedAt != 0 && !entry.leakReported && now - borrowedAt > threshold) {
+                entry.leakReported = true;
+                metrics.recordLeak();
+                log.warn("Possible connection leak in pool '{}': connection held for {}ms",
+                        name, TimeUnit.NANOSECONDS.toMillis(now - borrowedAt), borrowTrace);
+            }
+        }
+    }
+
+    private void evictIdleAndExpired() {
+        List<PoolEntry> oldestFirst = bag.values(PoolEntry.STATE_NOT_IN_USE);
+        oldestFirst.sort(Comparator.comparingLong(entry -> entry.lastAccessed));
+
+        long now = System.nanoTime();
+        for (PoolEntry entry : oldestFirst) {
+            boolean expired = entry.isExpired(maxLifetimeNanos(), now);
+            boolean surplus = totalConnections.get() > size.min() && entry.isIdleLongerThan(idleTimeoutNanos(), now);
+
+            if ((expired || surplus) && bag.reserve(entry)) {
+                remove(entry);
+            }
+        }
+    }
+
+    private void validateIdle() {
+        for (PoolEntry entry : bag.values(PoolEntry.STATE_NOT_IN_USE)) {
+            if (!bag.reserve(entry)) {
+                continue;
+            }
+
+            if (isValid(entry)) {
+                bag.unreserve(entry);
+            } else {
+                log.warn("Evicting broken connection from pool '{}'", name);
+                remove(entry);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && tryReserveSlot(size.min())) {
+            PoolEntry entry;
+            try {
+                entry = openReserved();
+            } catch (SQLException e) {
+                log.warn("Could not open connection for pool '{}'", name, e);
+                return;
+            }
+            bag.add(entry);
+        }
+    }
+
+    //  ------------------UTIL METHODS------------------
+
+    private void addConnection(long backoffNanos, CountDownLatch opened) {
+        if (closed || !tryReserveSlot(size.min())) {
+            countDown(opened);
+            return;
+        }
+
+        try {
+            bag.add(openReserved());
+        } catch (SQLException | RuntimeException e) {
+            long nextBackoff = Math.min(backoffNanos * 2, properties.getConnectRetryMaxBackoff().toNanos());
+            log.warn("Could not open connection for pool '{}', retrying in {}ms",
+                    name, TimeUnit.NANOSECONDS.toMillis(backoffNanos), e);
+            scheduleRetry(backoffNanos, nextBackoff);
+        } finally {
+            countDown(opened);
+        }
+    }
+
+    private void scheduleRetry(long delayNanos, long nextBackoffNanos) {
+        long jitter = ThreadLocalRandom.current().nextLong(delayNanos / 4 + 1);
+
+        try {
+            filler.schedule(() -> addConnection(nextBackoffNanos, null), delayNanos + jitter, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Connection pool '{}' is closed, not retrying", name);
+        }
+    }
+
+    private static void countDown(CountDownLatch latch) {
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    private static ScheduledExecutorService newScheduler(String threadName, int threads) {
+        var threadNumber = new AtomicInteger();
+
+        return Executors.newScheduledThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, threads == 1 ? threadName : threadName + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Borrowers never open connections themselves, so a slow or unreachable
+    // database cannot hold them past their deadline: a slot is reserved and the
+    // connection opened on the filler while the borrower waits on the handoff
+    private PoolEntry growForWaiter() {
+        if (!closed && filler != null && tryReserveSlot(size.max())) {
+            openReservedInBackground();
+        }
+        return null;
+    }
+
+    private void openReservedInBackground() {
+        try {
+            filler.execute(() -> {
+                try {
+                    bag.add(openReserved());
+                } catch (SQLException | RuntimeException e) {
+                    log.warn("Could not open connection for threads waiting on pool '{}'", name, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            totalConnections.decrementAndGet();
+            log.debug("Connection pool '{}' is closed, not growing", name);
+        }
+    }
+
+    private boolean tryReserveSlot(int limit) {
+        int total;
+        do {
+            total = totalConnections.get();
+            if (total >= limit) {
+                return false;
+            }
+        } while (!totalConnections.compareAndSet(total, total + 1));
+        return true;
+    }
+
+    private boolean tryRetireSurplus() {
+        int total;
+        do {
+            total = totalConnections.get();
+            if (total <= size.max()) {
+                return false;
+            }
+        } while (!totalConnections.compareAndSet(total, total - 1));
+        return true;
+    }
+
+    private PoolEntry openReserved() throws SQLException {
+        try {
+            return open();
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private Connection checkout(PoolEntry entry, long startedAt, long now) {
+        metrics.recordAcquire(now - startedAt, now);
+
+        entry.borrowedAt = now;
+        if (!properties.getLeakDetectionThreshold().isZero()) {
+            entry.borrowTrace = new Exception("Connection borrowed by thread " + Thread.currentThread().getName());
+        }
+        return new PooledConnection(this, entry);
+    }
+
+    private void endCheckout(PoolEntry entry, long now) {
+        long borrowedAt = entry.borrowedAt;
+        if (borrowedAt == 0) {
+            return;
+        }
+
+        long heldNanos = now - borrowedAt;
+        metrics.recordCheckout(heldNanos);
+
+        if (entry.leakReported) {
+            log.info("Connection previously reported as leaked returned to pool '{}' after {}ms",
+                    name, TimeUnit.NANOSECONDS.toMillis(heldNanos));
+        }
+        entry.borrowedAt = 0;
+        entry.borrowTrace = null;
+        entry.leakReported = false;
+    }
+
+    private PoolEntry open() throws SQLException {
+        Connection connection = connectionFactory.open();
+
+        try {
+            return new PoolEntry(connection, new StatementCache(properties.getStatementCacheSize(), statementCacheStats));
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    private boolean isValid(PoolEntry entry) {
+        try {
+            return entry.connection.isValid(validationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void remove(PoolEntry entry) {
+        if (bag.remove(entry)) {
+            totalConnections.decrementAndGet();
+            closeQuietly(entry);
+            refillInBackground();
+        }
+    }
+
+    private void refillInBackground() {
+        if (closed || filler == null) {
+            return;
+        }
+        if (bag.getWaitingThreadCount() > 0) {
+            growForWaiter();
+            return;
+        }
+        if (totalConnections.get() >= size.min()) {
+            return;
+        }
+
+        try {
+            filler.execute(() -> addConnection(properties.getConnectRetryBackoff().toNanos(), null));
+        } catch (RejectedExecutionException e) {
+            log.debug("Connection pool '{}' is closed, not refilling", name);
+        }
+    }
+
+    // Leaves the connects, and their retries, to the filler so that the caller
+    // of resize returns at once
+    private void fillToMinimumInBackground() {
+        if (closed || filler == null) {
+            return;
+        }
+
+        try {
+            for (int missing = size.min() - totalConnections.get(); missing > 0; missing--) {
+                filler.execute(() -> addConnection(properties.getConnectRetryBackoff().toNanos(), null));
+            }
+        } catch (RejectedExecutionException e) {
+            log.debug("Connection pool '{}' is closed, not filling", name);
+        }
+    }
+
+    private static boolean isClosed(PoolEntry entry) {
+        try {
+            return entry.connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private void closeQuietly(PoolEntry entry) {
+        entry.statementCache.closeAll();
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close connection of pool '{}'", name, e);
+        }
+    }
+
+    private int validationTimeoutSeconds() {
+        return (int) Math.max(1, properties.getValidationTimeout().toSeconds());
+    }
+
+    private long maxLifetimeNanos() {
+        return properties.getMaxLifetime().toNanos();
+    }
+
+    private long validateAfterIdleNanos() {
+        return properties.getValidateAfterIdle().toNanos();
+    }
+
+    private long idleTimeoutNanos() {
+        return properties.getIdleTimeout().toNanos();
+    }
+
+    public static boolean isValidSize(int minSize, int maxSize) {
+        return minSize >= 0 && maxSize >= 1 && minSize <= maxSize;
+    }
+
+    private static void checkSizes(int minSize, int maxSize) {
+        if (!isValidSize(minSize, maxSize)) {
+            throw new IllegalArgumentException(
+                    "Invalid pool size: min=%s, max=%s".formatted(minSize, maxSize));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.cinema.util.connection.pool;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "db.pool")
+public class ConnectionPoolProperties {
+    private int minSize = 5;
+    private int maxSize = 20;
+    private int initialSize = 5;
+    private int warmupParallelism = 4;
+    private Duration warmupTimeout = Duration.ofSeconds(5);
+    private Duration connectRetryBackoff = Duration.ofMillis(250);
+    private Duration connectRetryMaxBackoff = Duration.ofSeconds(10);
+    private Duration acquireTimeout = Duration.ofSeconds(1);
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Duration maxLifetime = Duration.ofMinutes(30);
+    private Duration validationTimeout = Duration.ofSeconds(2);
+    private Duration validateAfterIdle = Duration.ofMillis(500);
+    private Duration housekeepingPeriod = Duration.ofSeconds(30);
+    private Duration leakDetectionThreshold = Duration.ZERO;
+    private int statementCacheSize = 64;
+
+    public static ConnectionPoolProperties fixed(int size) {
+        var properties = new ConnectionPoolProperties();
+        properties.setMinSize(size);
+        properties.setMaxSize(size);
+        properties.setInitialSize(size);
+        return properties;
+    }
+
+    public ConnectionPoolProperties withSizes(int minSize, int maxSize) {
+        var properties = new ConnectionPoolProperties();
+        properties.setMinSize(minSize);
+        properties.setMaxSize(maxSize);
+        properties.setInitialSize(Math.min(initialSize, minSize));
+        properties.setWarmupParallelism(warmupParallelism);
+        properties.setWarmupTimeout(warmupTimeout);
+        properties.setConnectRetryBackoff(connectRetryBackoff);
+        properties.setConnectRetryMaxBackoff(connectRetryMaxBackoff);
+        properties.setAcquireTimeout(acquireTimeout);
+        properties.setIdleTimeout(idleTimeout);
+        properties.setMaxLifetime(maxLifetime);
+        properties.setValidationTimeout(validationTimeout);
+        properties.setValidateAfterIdle(validateAfterIdle);
+        properties.setHousekeepingPeriod(housekeepingPeriod);
+        properties.setLeakDetectionThreshold(leakDetectionThreshold);
+        properties.setStatementCacheSize(statementCacheSize);
+        return properties;
+    }
+}
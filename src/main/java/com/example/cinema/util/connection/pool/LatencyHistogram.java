@@ -0,0 +1,86 @@
+package com.example.cinema.util.connection.pool;
+
+import lombok.Value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LatencyHistogram {
+    private static final int BUCKETS = 32;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+
+        counts[bucket].increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKETS];
+        long count = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCounts[i] = counts[i].sum();
+            count += bucketCounts[i];
+        }
+
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (bucketCounts[i] > 0) {
+                buckets.put("le_" + upperBoundMicros(i) + "us", bucketCounts[i]);
+            }
+        }
+
+        return new Snapshot(
+                count,
+                count == 0 ? 0 : totalMicros.sum() / count,
+                maxMicros.get(),
+                percentile(bucketCounts, count, 0.50),
+                percentile(bucketCounts, count, 0.95),
+                percentile(bucketCounts, count, 0.99),
+                buckets);
+    }
+
+    private static long percentile(long[] bucketCounts, long count, double quantile) {
+        long rank = (long) Math.ceil(count * quantile);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank && seen > 0) {
+                return upperBoundMicros(i);
+            }
+        }
+        return 0;
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        return 1L << bucket;
+    }
+
+    @Value
+    public static class Snapshot {
+        long count;
+        long meanMicros;
+        long maxMicros;
+        long p50Micros;
+        long p95Micros;
+        long p99Micros;
+        Map<String, Long> buckets;
+    }
+}
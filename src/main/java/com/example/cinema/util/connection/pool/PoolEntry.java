@@ -0,0 +1,56 @@
+package com.example.cinema.util.connection.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+final class PoolEntry {
+    static final int STATE_NOT_IN_USE = 0;
+    static final int STATE_IN_USE = 1;
+    static final int STATE_REMOVED = -1;
+    static final int STATE_RESERVED = -2;
+
+    private static final AtomicIntegerFieldUpdater<PoolEntry> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(PoolEntry.class, "state");
+
+    final Connection connection;
+    final StatementCache statementCache;
+    final int defaultTransactionIsolation;
+    final boolean defaultReadOnly;
+    final long createdAt;
+    volatile long lastAccessed;
+    volatile long borrowedAt;
+    volatile Throwable borrowTrace;
+    volatile boolean leakReported;
+    volatile boolean broken;
+    private volatile int state;
+
+    PoolEntry(Connection connection, StatementCache statementCache) throws SQLException {
+        this.connection = connection;
+        this.statementCache = statementCache;
+        this.defaultTransactionIsolation = connection.getTransactionIsolation();
+        this.defaultReadOnly = connection.isReadOnly();
+        this.createdAt = System.nanoTime();
+        this.lastAccessed = createdAt;
+    }
+
+    int getState() {
+        return state;
+    }
+
+    void setState(int state) {
+        this.state = state;
+    }
+
+    boolean compareAndSetState(int expected, int state) {
+        return STATE.compareAndSet(this, expected, state);
+    }
+
+    boolean isExpired(long maxLifetimeNanos, long now) {
+        return maxLifetimeNanos > 0 && now - createdAt >= maxLifetimeNanos;
+    }
+
+    boolean isIdleLongerThan(long idleTimeoutNanos, long now) {
+        return idleTimeoutNanos > 0 && now - lastAccessed >= idleTimeoutNanos;
+    }
+}
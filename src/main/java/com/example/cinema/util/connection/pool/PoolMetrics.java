@@ -0,0 +1,34 @@
+package com.example.cinema.util.connection.pool;
+
+import java.util.concurrent.atomic.LongAdder;
+
+final class PoolMetrics {
+    final LatencyHistogram acquireWait = new LatencyHistogram();
+    final LatencyHistogram checkoutDuration = new LatencyHistogram();
+    final LongAdder acquisitions = new LongAdder();
+    final LongAdder timeouts = new LongAdder();
+    final LongAdder leaksDetected = new LongAdder();
+    private final RateMeter acquisitionRate = new RateMeter();
+
+    void recordAcquire(long waitNanos, long now) {
+        acquisitions.increment();
+        acquisitionRate.mark(now);
+        acquireWait.record(waitNanos);
+    }
+
+    void recordTimeout() {
+        timeouts.increment();
+    }
+
+    void recordCheckout(long heldNanos) {
+        checkoutDuration.record(heldNanos);
+    }
+
+    void recordLeak() {
+        leaksDetected.increment();
+    }
+
+    double acquisitionsPerSecond() {
+        return acquisitionRate.perSecond();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.cinema.util.connection.pool;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class PoolStats {
+    String name;
+    int minSize;
+    int maxSize;
+    int totalConnections;
+    int activeConnections;
+    int idleConnections;
+    int threadsWaiting;
+    long acquisitions;
+    double acquisitionsPerSecond;
+    long timeouts;
+    long leaksDetected;
+    LatencyHistogram.Snapshot acquireWait;
+    LatencyHistogram.Snapshot checkoutDuration;
+    long statementCacheHits;
+    long statementCacheMisses;
+    long statementCacheEvictions;
+}
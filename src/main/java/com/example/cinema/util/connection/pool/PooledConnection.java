@@ -0,0 +1,603 @@
+package com.example.cinema.util.connection.pool;
+
+import com.example.cinema.util.request.RequestDeadline;
+
+import java.sql.*;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class PooledConnection implements Connection {
+    private final ConnectionPool pool;
+    private final PoolEntry entry;
+    private final Connection delegate;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private boolean autoCommit = true;
+    private boolean readOnly;
+    private int transactionIsolation;
+
+    PooledConnection(ConnectionPool pool, PoolEntry entry) {
+        this.pool = pool;
+        this.entry = entry;
+        this.delegate = entry.connection;
+        this.transactionIsolation = entry.defaultTransactionIsolation;
+        this.readOnly = entry.defaultReadOnly;
+    }
+
+    //  ------------------LIFECYCLE------------------
+
+    @Override
+    public void close() throws SQLException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            entry.statementCache.releaseAll();
+            resetState();
+        } catch (SQLException e) {
+            pool.evict(entry);
+            throw e;
+        }
+        pool.release(entry);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void abort(Executor executor) throws SQLException {
+        if (closed.compareAndSet(false, true)) {
+            pool.evict(entry);
+            delegate.abort(executor);
+        }
+    }
+
+    @Override
+    public boolean isValid(int timeout) throws SQLException {
+        try {
+            return !closed.get() && delegate.isValid(timeout);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    //  ------------------STATEMENTS------------------
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(delegate.createStatement());
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(delegate.createStatement(resultSetType, resultSetConcurrency));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(delegate.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(entry.statementCache.prepare(StatementKey.of(sql), this,
+                    () -> delegate.prepareStatement(sql)));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(entry.statementCache.prepare(StatementKey.of(sql, resultSetType, resultSetConcurrency), this,
+                    () -> delegate.prepareStatement(sql, resultSetType, resultSetConcurrency)));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(entry.statementCache.prepare(StatementKey.of(sql, resultSetType, resultSetConcurrency, resultSetHoldability), this,
+                    () -> delegate.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability)));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(entry.statementCache.prepare(StatementKey.of(sql, autoGeneratedKeys), this,
+                    () -> delegate.prepareStatement(sql, autoGeneratedKeys)));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(delegate.prepareStatement(sql, columnIndexes));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(delegate.prepareStatement(sql, columnNames));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(delegate.prepareCall(sql));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(delegate.prepareCall(sql, resultSetType, resultSetConcurrency));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        checkOpen();
+        try {
+            return withDeadline(delegate.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public String nativeSQL(String sql) throws SQLException {
+        checkOpen();
+        try {
+            return delegate.nativeSQL(sql);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    //  ------------------TRANSACTIONS------------------
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        checkOpen();
+        try {
+            delegate.setAutoCommit(autoCommit);
+            this.autoCommit = autoCommit;
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getAutoCommit();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        checkOpen();
+        try {
+            delegate.commit();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        checkOpen();
+        try {
+            delegate.rollback();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void rollback(Savepoint savepoint) throws SQLException {
+        checkOpen();
+        try {
+            delegate.rollback(savepoint);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.setSavepoint();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public Savepoint setSavepoint(String name) throws SQLException {
+        checkOpen();
+        try {
+            return delegate.setSavepoint(name);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        checkOpen();
+        try {
+            delegate.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void setTransactionIsolation(int level) throws SQLException {
+        checkOpen();
+        try {
+            delegate.setTransactionIsolation(level);
+            this.transactionIsolation = level;
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getTransactionIsolation();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        checkOpen();
+        try {
+            delegate.setReadOnly(readOnly);
+            this.readOnly = readOnly;
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.isReadOnly();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    //  ------------------SESSION------------------
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getMetaData();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void setCatalog(String catalog) throws SQLException {
+        checkOpen();
+        try {
+            delegate.setCatalog(catalog);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getCatalog();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void setSchema(String schema) throws SQLException {
+        checkOpen();
+        try {
+            delegate.setSchema(schema);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getSchema();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getWarnings();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        checkOpen();
+        try {
+            delegate.clearWarnings();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getTypeMap();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+        checkOpen();
+        try {
+            delegate.setTypeMap(map);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void setHoldability(int holdability) throws SQLException {
+        checkOpen();
+        try {
+            delegate.setHoldability(holdability);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getHoldability();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        delegate.setClientInfo(name, value);
+    }
+
+    @Override
+    public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        delegate.setClientInfo(properties);
+    }
+
+    @Override
+    public String getClientInfo(String name) throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getClientInfo(name);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getClientInfo();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        checkOpen();
+        try {
+            delegate.setNetworkTimeout(executor, milliseconds);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.getNetworkTimeout();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    //  ------------------TYPES------------------
+
+    @Override
+    public Clob createClob() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.createClob();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.createBlob();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.createNClob();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        checkOpen();
+        try {
+            return delegate.createSQLXML();
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        checkOpen();
+        try {
+            return delegate.createArrayOf(typeName, elements);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        checkOpen();
+        try {
+            return delegate.createStruct(typeName, attributes);
+        } catch (SQLException e) {
+            throw checkException(e);
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        checkOpen();
+        return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        checkOpen();
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    //  ------------------UTIL METHODS------------------
+
+    SQLException checkException(SQLException e) {
+        if (!entry.broken && SqlStates.isFatal(e)) {
+            entry.broken = true;
+        }
+        return e;
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed.get()) {
+            throw new SQLNonTransientConnectionException("Connection is closed", "08003");
+        }
+    }
+
+    private void resetState() throws SQLException {
+        if (!autoCommit) {
+            delegate.rollback();
+            delegate.setAutoCommit(true);
+        }
+        if (transactionIsolation != entry.defaultTransactionIsolation) {
+            delegate.setTransactionIsolation(entry.defaultTransactionIsolation);
+        }
+        if (readOnly != entry.defaultReadOnly) {
+            delegate.setReadOnly(entry.defaultReadOnly);
+        }
+    }
+
+    private static <T extends Statement> T withDeadline(T statement) throws SQLException {
+        try {
+            RequestDeadline.applyTo(statement);
+        } catch (SQLException | RuntimeException e) {
+            statement.close();
+            throw e;
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cinema.util.connection.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+final class RateMeter {
+    private static final int WINDOW_SECONDS = 10;
+
+    private final LongAdder[] counts = new LongAdder[WINDOW_SECONDS];
+    private final AtomicLongArray seconds = new AtomicLongArray(WINDOW_SECONDS);
+
+    RateMeter() {
+        for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+            counts[slot] = new LongAdder();
+        }
+    }
+
+    void mark(long nanoTime) {
+        long second = TimeUnit.NANOSECONDS.toSeconds(nanoTime);
+        int slot = (int) (second % WINDOW_SECONDS);
+        long slotSecond = seconds.get(slot);
+
+        if (slotSecond != second && seconds.compareAndSet(slot, slotSecond, second)) {
+            counts[slot].reset();
+        }
+        counts[slot].increment();
+    }
+
+    double perSecond() {
+        long now = currentSecond();
+        long total = 0;
+
+        for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+            long age = now - seconds.get(slot);
+            if (age >= 1 && age <= WINDOW_SECONDS) {
+                total += counts[slot].sum();
+            }
+        }
+        return (double) total / WINDOW_SECONDS;
+    }
+
+    private static long currentSecond() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    }
+}
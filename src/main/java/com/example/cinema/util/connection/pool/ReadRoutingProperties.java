@@ -0,0 +1,32 @@
+package com.example.cinema.util.connection.pool;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "db.read")
+public class ReadRoutingProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    private Selection selection = Selection.ROUND_ROBIN;
+    private Duration primaryAfterWrite = Duration.ofSeconds(1);
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_BUSY
+    }
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int minSize = 2;
+        private int maxSize = 10;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.cinema.util.connection.pool;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+final class SqlStates {
+    private static final String CONNECTION_EXCEPTION_CLASS = "08";
+    private static final Set<String> FATAL_STATES = Set.of(
+            "57P01", // admin_shutdown
+            "57P02", // crash_shutdown
+            "57P03", // cannot_connect_now
+            "01002", // disconnect error
+            "JZ0C0",
+            "JZ0C1");
+
+    private SqlStates() {
+    }
+
+    static boolean isFatal(SQLException exception) {
+        for (SQLException e = exception; e != null; e = e.getNextException()) {
+            String sqlState = e.getSQLState();
+
+            if (sqlState != null && (sqlState.startsWith(CONNECTION_EXCEPTION_CLASS) || FATAL_STATES.contains(sqlState))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.cinema.util.connection.pool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class StatementCache {
+    private final int maxSize;
+    private final StatementCacheStats stats;
+    private final Map<StatementKey, CachedPreparedStatement> idle;
+    private final List<CachedPreparedStatement> inUse = new ArrayList<>();
+
+    StatementCache(int maxSize, StatementCacheStats stats) {
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedPreparedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                stats.recordEviction();
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    PreparedStatement prepare(StatementKey key, PooledConnection owner, StatementFactory factory) throws SQLException {
+        CachedPreparedStatement statement = idle.remove(key);
+
+        if (statement != null && !statement.delegate.isClosed()) {
+            stats.recordHit();
+        } else {
+            stats.recordMiss();
+            statement = new CachedPreparedStatement(this, key, factory.prepare());
+        }
+
+        statement.checkout(owner);
+        inUse.add(statement);
+        return statement;
+    }
+
+    void release(CachedPreparedStatement statement) {
+        inUse.remove(statement);
+
+        try {
+            statement.reset();
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+
+        if (maxSize == 0 || idle.containsKey(statement.key)) {
+            closeQuietly(statement);
+        } else {
+            idle.put(statement.key, statement);
+        }
+    }
+
+    void releaseAll() {
+        if (inUse.isEmpty()) {
+            return;
+        }
+        new ArrayList<>(inUse).forEach(CachedPreparedStatement::close);
+    }
+
+    void closeAll() {
+        inUse.forEach(StatementCache::closeQuietly);
+        idle.values().forEach(StatementCache::closeQuietly);
+        inUse.clear();
+        idle.clear();
+    }
+
+    int size() {
+        return idle.size();
+    }
+
+    private static void closeQuietly(CachedPreparedStatement statement) {
+        try {
+            statement.delegate.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    @FunctionalInterface
+    interface StatementFactory {
+        PreparedStatement prepare() throws SQLException;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.cinema.util.connection.pool;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+record StatementKey(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability, int autoGeneratedKeys) {
+    private static final int DEFAULT_HOLDABILITY = 0;
+
+    static StatementKey of(String sql) {
+        return of(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    static StatementKey of(String sql, int resultSetType, int resultSetConcurrency) {
+        return of(sql, resultSetType, resultSetConcurrency, DEFAULT_HOLDABILITY);
+    }
+
+    static StatementKey of(String sql, int autoGeneratedKeys) {
+        return new StatementKey(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, DEFAULT_HOLDABILITY, autoGeneratedKeys);
+    }
+
+    static StatementKey of(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) {
+        return new StatementKey(sql, resultSetType, resultSetConcurrency, resultSetHoldability, Statement.NO_GENERATED_KEYS);
+    }
+}
@@ -4,6 +4,8 @@ import com.example.cinema.model.dto.MoviesDto;
 import com.example.cinema.model.entity.MoviesEntity;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
+
 @Component
 public class MoviesMapper {
 
@@ -15,7 +17,8 @@ public class MoviesMapper {
                 moviesEntity.getDirector(),
                 moviesEntity.getDurationMinutes(),
                 moviesEntity.getDescription(),
-                moviesEntity.getGenres()
+                moviesEntity.getGenres(),
+                moviesEntity.getVersion()
         );
     }
 
@@ -27,7 +30,8 @@ public class MoviesMapper {
                 moviesDto.getDirector(),
                 moviesDto.getDurationMinutes(),
                 moviesDto.getDescription(),
-                moviesDto.getGenres()
+                moviesDto.getGenres(),
+                Objects.requireNonNullElse(moviesDto.getVersion(), 0)
         );
     }
 }
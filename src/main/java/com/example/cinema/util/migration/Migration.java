@@ -0,0 +1,34 @@
+package com.example.cinema.util.migration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// One versioned script, named V<version>__<description>.sql. The checksum
+// ignores line endings so that a checkout on another OS does not look edited.
+record Migration(int version, String description, String sql) {
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    static Migration of(String fileName, String sql) {
+        Matcher matcher = FILE_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Migration file name '%s' does not match V<version>__<description>.sql"
+                    .formatted(fileName));
+        }
+
+        return new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '), sql);
+    }
+
+    String checksum() {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
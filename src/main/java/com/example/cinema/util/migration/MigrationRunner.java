@@ -0,0 +1,174 @@
+package com.example.cinema.util.migration;
+
+import com.example.cinema.exception.DaoException;
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+// Brings the database up to the scripts under db/migration at startup. Each
+// script runs once, in version order, in its own transaction together with its
+// row in schema_migrations. A script that changed after it was applied stops
+// startup instead of leaving nodes on different schemas. Nodes starting at the
+// same time queue on an advisory lock, so each script is applied by one of them.
+@Slf4j
+@Component("migrationRunner")
+public class MigrationRunner {
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final long LOCK_KEY = 0x63696e656d61L; // "cinema"
+
+    private final ConnectionManager connectionManager;
+    private final List<Migration> migrations;
+
+    private static final String CREATE_HISTORY_SQL = """
+            CREATE TABLE IF NOT EXISTS schema_migrations (
+                version      integer      primary key,
+                description  varchar(200) not null,
+                checksum     char(64)     not null,
+                execution_ms bigint       not null,
+                applied_at   timestamptz  not null default now()
+            )
+            """;
+
+    private static final String FIND_APPLIED_SQL = "SELECT version, checksum FROM schema_migrations";
+
+    private static final String SAVE_APPLIED_SQL = """
+            INSERT INTO schema_migrations(version, description, checksum, execution_ms)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_lock(?)";
+
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(?)";
+
+    @Autowired
+    public MigrationRunner(ConnectionManager connectionManager) {
+        this(connectionManager, loadMigrations());
+    }
+
+    MigrationRunner(ConnectionManager connectionManager, List<Migration> migrations) {
+        this.connectionManager = connectionManager;
+        this.migrations = migrations.stream()
+                .sorted(Comparator.comparingInt(Migration::version))
+                .toList();
+
+        for (int i = 1; i < this.migrations.size(); i++) {
+            if (this.migrations.get(i).version() == this.migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version V" + this.migrations.get(i).version());
+            }
+        }
+    }
+
+    @PostConstruct
+    public void migrate() {
+        try (var connection = connectionManager.get()) {
+            lock(connection, LOCK_SQL);
+            try {
+                migrate(connection);
+            } finally {
+                lock(connection, UNLOCK_SQL);
+            }
+        } catch (SQLException e) {
+            throw new DaoException(e);
+        }
+    }
+
+    //  ------------------UTIL METHODS------------------
+
+    private void migrate(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(CREATE_HISTORY_SQL);
+        }
+
+        Map<Integer, String> applied = findApplied(connection);
+        int pending = 0;
+
+        for (Migration migration : migrations) {
+            String checksum = applied.get(migration.version());
+
+            if (checksum == null) {
+                apply(connection, migration);
+                pending++;
+            } else if (!checksum.equals(migration.checksum())) {
+                throw new IllegalStateException(
+                        "Migration V%s (%s) was changed after it was applied"
+                                .formatted(migration.version(), migration.description()));
+            }
+        }
+
+        log.info("Schema is at version {}, {} migration(s) applied",
+                migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version(), pending);
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        long started = System.nanoTime();
+        connection.setAutoCommit(false);
+
+        try (var statement = connection.createStatement();
+             var preparedStatement = connection.prepareStatement(SAVE_APPLIED_SQL)) {
+            statement.execute(migration.sql());
+
+            preparedStatement.setInt(1, migration.version());
+            preparedStatement.setString(2, migration.description());
+            preparedStatement.setString(3, migration.checksum());
+            preparedStatement.setLong(4, (System.nanoTime() - started) / 1_000_000);
+            preparedStatement.executeUpdate();
+
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+
+        log.info("Applied migration V{} ({}) in {} ms", migration.version(), migration.description(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static Map<Integer, String> findApplied(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+
+        try (var statement = connection.createStatement()) {
+            var resultSet = statement.executeQuery(FIND_APPLIED_SQL);
+
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt(1), resultSet.getString(2));
+            }
+        }
+
+        return applied;
+    }
+
+    private static void lock(Connection connection, String sql) throws SQLException {
+        try (var preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setLong(1, LOCK_KEY);
+            preparedStatement.executeQuery();
+        }
+    }
+
+    private static List<Migration> loadMigrations() {
+        try {
+            List<Migration> migrations = new ArrayList<>();
+
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                migrations.add(Migration.of(resource.getFilename(),
+                        resource.getContentAsString(StandardCharsets.UTF_8)));
+            }
+
+            return migrations;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cinema.util.request;
+
+import com.example.cinema.exception.ServiceUnavailableException;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public final class RequestDeadline {
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void start(Duration timeout) {
+        DEADLINE.set(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    public static long remainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    public static void applyTo(Statement statement) throws SQLException {
+        if (!isSet()) {
+            return;
+        }
+
+        long remaining = remainingNanos();
+        if (remaining <= 0) {
+            throw ServiceUnavailableException.requestDeadlineExceeded();
+        }
+
+        long seconds = (TimeUnit.NANOSECONDS.toMillis(remaining) + 999) / 1000;
+        statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, seconds));
+    }
+}
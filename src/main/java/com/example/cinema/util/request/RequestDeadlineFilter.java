@@ -0,0 +1,31 @@
+package com.example.cinema.util.request;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+    private final Duration requestTimeout;
+
+    public RequestDeadlineFilter(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestDeadline.start(requestTimeout);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+}
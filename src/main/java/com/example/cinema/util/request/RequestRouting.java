@@ -0,0 +1,30 @@
+package com.example.cinema.util.request;
+
+// Where the reads of the current request may go. Outside a request (schedulers,
+// import jobs, startup) nothing is tracked: such threads live on after the work
+// that wrote, so a pin would never be cleared and they would stop using the
+// replicas for good.
+public final class RequestRouting {
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private RequestRouting() {
+    }
+
+    public static void start() {
+        PRIMARY_ONLY.set(Boolean.FALSE);
+    }
+
+    public static void pinToPrimary() {
+        if (PRIMARY_ONLY.get() != null) {
+            PRIMARY_ONLY.set(Boolean.TRUE);
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PRIMARY_ONLY.get());
+    }
+
+    public static void clear() {
+        PRIMARY_ONLY.remove();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.cinema.util.request;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+
+public class RequestRoutingFilter extends OncePerRequestFilter {
+    static final String PRIMARY_COOKIE = "db-primary";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration primaryAfterWrite;
+
+    public RequestRoutingFilter(Duration primaryAfterWrite) {
+        this.primaryAfterWrite = primaryAfterWrite;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestRouting.start();
+
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            RequestRouting.pinToPrimary();
+            stickToPrimary(response);
+        } else if (hasPrimaryCookie(request)) {
+            RequestRouting.pinToPrimary();
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestRouting.clear();
+        }
+    }
+
+    private void stickToPrimary(HttpServletResponse response) {
+        long seconds = (primaryAfterWrite.toMillis() + 999) / 1000;
+        if (seconds <= 0) {
+            return;
+        }
+
+        var cookie = new Cookie(PRIMARY_COOKIE, "1");
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.min(Integer.MAX_VALUE, seconds));
+        response.addCookie(cookie);
+    }
+
+    private static boolean hasPrimaryCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        return cookies != null && Arrays.stream(cookies)
+                .anyMatch(cookie -> PRIMARY_COOKIE.equals(cookie.getName()));
+    }
+}
@@ -0,0 +1,83 @@
+-- Schema as it stood before migrations were tracked. Written to be a no-op on
+-- nodes that already have it, and to fill in what older nodes are missing.
+
+create table if not exists public.movies
+(
+    id               serial
+        primary key,
+    title            varchar(200) not null,
+    release_date     date         not null,
+    director         varchar(100) not null,
+    duration_minutes integer,
+    description      text
+);
+
+create table if not exists public.screenings
+(
+    id         serial
+        primary key,
+    movie_id   integer
+        references public.movies,
+    start_time timestamp     not null,
+    price      numeric(8, 2) not null
+);
+
+create table if not exists public.users
+(
+    id       serial
+        primary key,
+    username varchar(50) not null,
+    email    varchar(50) not null,
+    password varchar(50) not null
+);
+
+create table if not exists public.genres
+(
+    id    serial
+        primary key,
+    genre varchar(30) not null
+);
+
+create table if not exists public.seat_class
+(
+    id         serial
+        primary key,
+    seat_class varchar(10) not null
+);
+
+create table if not exists public.seats
+(
+    id            serial
+        primary key,
+    seat_no       varchar(4) not null,
+    seat_class_id integer
+        references public.seat_class
+);
+
+create table if not exists public.tickets
+(
+    id            serial
+        primary key,
+    screening_id  integer
+        references public.screenings,
+    user_id       integer
+        references public.users,
+    seat_id       integer
+        references public.seats,
+    ticket_price  numeric(8, 2) not null,
+    purchase_date timestamp     not null
+);
+
+create table if not exists public.movie_to_genre
+(
+    movie_id integer not null
+        references public.movies,
+    genre_id integer not null
+        references public.genres
+);
+
+create index if not exists movies_title_release_date_idx
+    on public.movies (title, release_date);
+
+create index if not exists genres_lower_genre_idx
+    on public.genres (lower(genre));
@@ -0,0 +1,27 @@
+-- movie_to_genre is read both ways: genres of a movie (by movie_id) and movies
+-- of a genre (by genre_id). The primary key serves the first and doubles as the
+-- ON CONFLICT target of the link inserts; the reverse index serves the second.
+
+-- Nodes created without the key may hold duplicate links
+delete
+from public.movie_to_genre a
+    using public.movie_to_genre b
+where a.ctid > b.ctid
+  and a.movie_id = b.movie_id
+  and a.genre_id = b.genre_id;
+
+do
+$$
+    begin
+        if not exists (select 1
+                       from pg_constraint
+                       where conrelid = 'public.movie_to_genre'::regclass
+                         and contype = 'p') then
+            alter table public.movie_to_genre
+                add constraint movie_to_genre_pkey primary key (movie_id, genre_id);
+        end if;
+    end
+$$;
+
+create index if not exists movie_to_genre_genre_id_movie_id_idx
+    on public.movie_to_genre (genre_id, movie_id);
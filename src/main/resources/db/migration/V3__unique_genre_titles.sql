@@ -0,0 +1,30 @@
+-- Genre lookups and the ON CONFLICT (genre) upserts need a unique index on
+-- genres(genre). Nodes that lack it may hold the same title more than once;
+-- those are merged into the oldest row before the index is built.
+
+create temporary table genre_duplicates on commit drop as
+select id, min(id) over (partition by genre) as keep_id
+from public.genres;
+
+delete
+from genre_duplicates
+where id = keep_id;
+
+insert into public.movie_to_genre(movie_id, genre_id)
+select mtg.movie_id, d.keep_id
+from public.movie_to_genre mtg
+         join genre_duplicates d on d.id = mtg.genre_id
+on conflict (movie_id, genre_id) do nothing;
+
+delete
+from public.movie_to_genre
+where genre_id in (select id from genre_duplicates);
+
+delete
+from public.genres
+where id in (select id from genre_duplicates);
+
+-- Named like the index a "unique" column constraint creates, so nodes that
+-- already have the constraint skip this
+create unique index if not exists genres_genre_key
+    on public.genres (genre);
@@ -0,0 +1,25 @@
+-- Links belong to their movie and genre; deleting either removes its links.
+-- Existing foreign keys are replaced whatever they were named on each node.
+
+do
+$$
+    declare
+        fk record;
+    begin
+        for fk in select conname
+                  from pg_constraint
+                  where conrelid = 'public.movie_to_genre'::regclass
+                    and contype = 'f'
+            loop
+                execute format('alter table public.movie_to_genre drop constraint %I', fk.conname);
+            end loop;
+    end
+$$;
+
+alter table public.movie_to_genre
+    add constraint movie_to_genre_movie_id_fkey
+        foreign key (movie_id) references public.movies on delete cascade;
+
+alter table public.movie_to_genre
+    add constraint movie_to_genre_genre_id_fkey
+        foreign key (genre_id) references public.genres on delete cascade;
@@ -0,0 +1,33 @@
+-- Catalog statistics, refreshed concurrently by StatsServiceImpl when the
+-- underlying tables have changed; each view needs a unique index for that.
+
+create materialized view if not exists public.genre_stats as
+select g.id                    as genre_id,
+       g.genre,
+       count(m.id)             as movies,
+       avg(m.duration_minutes) as average_duration
+from public.genres g
+         left join public.movie_to_genre mtg on mtg.genre_id = g.id
+         left join public.movies m on m.id = mtg.movie_id
+group by g.id, g.genre;
+
+create unique index if not exists genre_stats_genre_id_idx
+    on public.genre_stats (genre_id);
+
+create materialized view if not exists public.release_year_stats as
+select extract(year from release_date)::integer as release_year,
+       count(*)                                 as movies
+from public.movies
+group by 1;
+
+create unique index if not exists release_year_stats_release_year_idx
+    on public.release_year_stats (release_year);
+
+create materialized view if not exists public.director_stats as
+select director,
+       count(*) as movies
+from public.movies
+group by director;
+
+create unique index if not exists director_stats_director_idx
+    on public.director_stats (director);
@@ -0,0 +1,5 @@
+-- Optimistic locking for movie edits: updates and patches only apply when the
+-- client's version still matches, and move it on by one.
+
+alter table public.movies
+    add column if not exists version integer not null default 0;
@@ -0,0 +1,13 @@
+-- Full-text search over movies: a weighted document kept up to date by
+-- Postgres itself (title over director over description) and a GIN index
+-- for the @@ matches in MoviesDao.search.
+
+alter table public.movies
+    add column if not exists search_vector tsvector generated always as (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(director, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'C')
+    ) stored;
+
+create index if not exists movies_search_vector_idx
+    on public.movies using gin (search_vector);
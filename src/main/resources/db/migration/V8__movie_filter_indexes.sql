@@ -0,0 +1,8 @@
+-- Indexes behind MoviesDao.findByFilter: (release_date, id) serves the date
+-- range and the keyset order of release-date sorts, director the exact match.
+
+create index if not exists movies_release_date_id_idx
+    on public.movies (release_date, id);
+
+create index if not exists movies_director_idx
+    on public.movies (director);
@@ -0,0 +1,78 @@
+package com.example.cinema.benchmark;
+
+import com.example.cinema.util.connection.pool.ConnectionPool;
+import com.example.cinema.util.connection.pool.ConnectionPoolProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Borrow/return throughput under heavy contention: the original single
+// ArrayBlockingQueue pool against ConnectionPool's thread-affine bag.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+public class ConnectionBorrowBenchmark {
+
+    @Param({"16"})
+    private int poolSize;
+
+    @Param({"16"})
+    private int workTokens;
+
+    private BlockingQueue<Connection> queue;
+    private ConnectionPool pool;
+
+    @Setup
+    public void setUp() {
+        queue = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            queue.add(new NoopConnection());
+        }
+
+        pool = new ConnectionPool("benchmark", NoopConnection::new, ConnectionPoolProperties.fixed(poolSize));
+        pool.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public void arrayBlockingQueue() throws InterruptedException {
+        Connection connection = queue.take();
+        try {
+            Blackhole.consumeCPU(workTokens);
+        } finally {
+            queue.put(connection);
+        }
+    }
+
+    @Benchmark
+    public void connectionBag() throws SQLException, InterruptedException {
+        Connection connection = pool.borrow(TimeUnit.SECONDS.toNanos(10));
+        try {
+            Blackhole.consumeCPU(workTokens);
+        } finally {
+            connection.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConnectionBorrowBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
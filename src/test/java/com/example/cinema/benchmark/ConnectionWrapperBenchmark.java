@@ -0,0 +1,84 @@
+package com.example.cinema.benchmark;
+
+import com.example.cinema.util.connection.pool.ConnectionPool;
+import com.example.cinema.util.connection.pool.ConnectionPoolProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Per-call cost of the pooled connection wrapper: the old reflective
+// java.lang.reflect.Proxy handler against the hand-written PooledConnection.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionWrapperBenchmark {
+    private static final String SQL = "SELECT id, title FROM movies WHERE id = ?";
+
+    private Connection direct;
+    private Connection proxy;
+    private Connection pooled;
+    private ConnectionPool pool;
+
+    @Setup
+    public void setUp() throws SQLException, InterruptedException {
+        direct = new NoopConnection();
+        proxy = reflectiveProxy(new NoopConnection());
+
+        pool = new ConnectionPool("benchmark", NoopConnection::new, ConnectionPoolProperties.fixed(1));
+        pool.start();
+        pooled = pool.borrow();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        pooled.close();
+        pool.close();
+    }
+
+    @Benchmark
+    public boolean directGetAutoCommit() throws SQLException {
+        return direct.getAutoCommit();
+    }
+
+    @Benchmark
+    public boolean proxyGetAutoCommit() throws SQLException {
+        return proxy.getAutoCommit();
+    }
+
+    @Benchmark
+    public boolean pooledGetAutoCommit() throws SQLException {
+        return pooled.getAutoCommit();
+    }
+
+    @Benchmark
+    public String proxyNativeSql() throws SQLException {
+        return proxy.nativeSQL(SQL);
+    }
+
+    @Benchmark
+    public String pooledNativeSql() throws SQLException {
+        return pooled.nativeSQL(SQL);
+    }
+
+    private static Connection reflectiveProxy(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionWrapperBenchmark.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> method.getName().equals("close")
+                        ? null
+                        : method.invoke(connection, args));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConnectionWrapperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.cinema.benchmark;
+
+import com.example.cinema.dao.GenresDao;
+import com.example.cinema.dao.MoviesDao;
+import com.example.cinema.model.entity.MoviesEntity;
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import com.example.cinema.util.connection.pool.StatementCacheStats;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// MoviesDao.findAll against a real catalog: latency and statements prepared
+// per call should stay flat as the number of movies grows. Needs Docker.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoviesFindAllBenchmark {
+    @Param({"10", "100", "1000"})
+    private int catalogSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConnectionManager connectionManager;
+    private MoviesDao moviesDao;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15.4")
+                .withInitScript("init.sql")
+                .withDatabaseName("cinema_repository");
+        postgres.start();
+
+        connectionManager = new ConnectionManager(
+                postgres.getPassword(),
+                postgres.getUsername(),
+                postgres.getJdbcUrl(),
+                4);
+        connectionManager.initConnectionPool();
+        moviesDao = new MoviesDao(new GenresDao(connectionManager), connectionManager);
+
+        List<MoviesEntity> movies = new ArrayList<>();
+        for (int i = 0; i < catalogSize; i++) {
+            movies.add(new MoviesEntity(0, "Movie " + i, LocalDate.of(2000, 1, 1).plusDays(i),
+                    "Director " + i, 90, "Description " + i,
+                    List.of("Genre " + i % 7, "Genre " + i % 11)));
+        }
+        moviesDao.save(movies);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionManager.closePool();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public List<MoviesEntity> findAll(RoundTrips roundTrips) {
+        long before = preparedStatements();
+        List<MoviesEntity> movies = moviesDao.findAll();
+        roundTrips.statements += preparedStatements() - before;
+        return movies;
+    }
+
+    private long preparedStatements() {
+        StatementCacheStats stats = connectionManager.getPool().getStatementCacheStats();
+        return stats.getHits() + stats.getMisses();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoviesFindAllBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.cinema.benchmark;
+
+import com.example.cinema.dao.GenresDao;
+import com.example.cinema.dao.MoviesDao;
+import com.example.cinema.model.entity.MoviesEntity;
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Movies saved per second: one autocommitted save(entity) per movie, as the
+// list save used to do, against the batched single-transaction save(list).
+// Needs Docker.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MoviesSaveBenchmark {
+    private static final int MOVIES = 1000;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConnectionManager connectionManager;
+    private MoviesDao moviesDao;
+    private List<MoviesEntity> movies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15.4")
+                .withInitScript("init.sql")
+                .withDatabaseName("cinema_repository");
+        postgres.start();
+
+        connectionManager = new ConnectionManager(
+                postgres.getPassword(),
+                postgres.getUsername(),
+                postgres.getJdbcUrl(),
+                4);
+        connectionManager.initConnectionPool();
+        moviesDao = new MoviesDao(new GenresDao(connectionManager), connectionManager);
+    }
+
+    @Setup(Level.Invocation)
+    public void newMovies() {
+        movies = new ArrayList<>(MOVIES);
+        for (int i = 0; i < MOVIES; i++) {
+            movies.add(new MoviesEntity(0, "Movie " + i, LocalDate.of(2000, 1, 1).plusDays(i),
+                    "Director " + i, 90, "Description " + i,
+                    List.of("Genre " + i % 7, "Genre " + i % 11, "Genre " + i % 13)));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (var connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             var statement = connection.createStatement()) {
+            statement.execute("TRUNCATE movie_to_genre, movies, genres RESTART IDENTITY CASCADE");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionManager.closePool();
+        postgres.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVIES)
+    public void saveOneByOne() {
+        for (MoviesEntity movie : movies) {
+            moviesDao.save(movie);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVIES)
+    public List<MoviesEntity> saveBatch() {
+        return moviesDao.save(movies);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoviesSaveBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
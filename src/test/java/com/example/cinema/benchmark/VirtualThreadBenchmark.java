@@ -0,0 +1,84 @@
+package com.example.cinema.benchmark;
+
+import com.example.cinema.util.connection.pool.ConnectionPool;
+import com.example.cinema.util.connection.pool.ConnectionPoolProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Time to drain a burst of slow requests, each waiting on a slow downstream
+// call before a short pooled query: a 200-thread platform pool (the Tomcat
+// default) against one virtual thread per request.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"1000", "5000"})
+    private int requests;
+
+    @Param({"20"})
+    private int slowCallMillis;
+
+    private ExecutorService executor;
+    private ConnectionPool pool;
+
+    @Setup
+    public void setUp() {
+        executor = threads.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(200);
+
+        pool = new ConnectionPool("benchmark", NoopConnection::new, ConnectionPoolProperties.fixed(20));
+        pool.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    public int slowRequests() throws Exception {
+        List<Future<Boolean>> futures = new ArrayList<>(requests);
+
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(slowCallMillis);
+                try (Connection connection = pool.borrow(TimeUnit.SECONDS.toNanos(30))) {
+                    return connection.getAutoCommit();
+                }
+            }));
+        }
+
+        int completed = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VirtualThreadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
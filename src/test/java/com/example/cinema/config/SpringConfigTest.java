@@ -0,0 +1,37 @@
+package com.example.cinema.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpringConfigTest {
+
+    @Test
+    void asyncSupportShouldUseBoundedExecutorAndOutlastContainerDefaultTimeout() {
+        var springConfig = new SpringConfig(null, Duration.ofMinutes(30), 4);
+        var configurer = new ExposedAsyncSupportConfigurer();
+
+        springConfig.configureAsyncSupport(configurer);
+
+        assertThat(configurer.timeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        assertThat(configurer.executor()).isInstanceOfSatisfying(ThreadPoolTaskExecutor.class, executor -> {
+            assertThat(executor.getMaxPoolSize()).isEqualTo(4);
+            assertThat(executor.getQueueCapacity()).isEqualTo(16);
+        });
+    }
+
+    private static class ExposedAsyncSupportConfigurer extends AsyncSupportConfigurer {
+        Long timeout() {
+            return getTimeout();
+        }
+
+        AsyncTaskExecutor executor() {
+            return getTaskExecutor();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.cinema.dao;
+
+import com.example.cinema.model.entity.MoviesEntity;
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import org.assertj.db.type.Source;
+import org.assertj.db.type.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.db.api.Assertions.assertThat;
+
+@Testcontainers
+class CatalogImportDaoTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:15.4"
+    )
+            .withInitScript("init.sql")
+            .withDatabaseName("cinema_repository");
+
+    static ConnectionManager connectionManager;
+    static CatalogImportDao catalogImportDao;
+    static MoviesDao moviesDao;
+    static Source dataSource;
+
+    @BeforeEach
+    void setUp() {
+        postgres.start();
+
+        connectionManager = new ConnectionManager(
+                postgres.getPassword(),
+                postgres.getUsername(),
+                postgres.getJdbcUrl(),
+                4);
+        connectionManager.initConnectionPool();
+
+        catalogImportDao = new CatalogImportDao(connectionManager);
+        moviesDao = new MoviesDao(new GenresDao(connectionManager), connectionManager);
+        dataSource = new Source(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.closePool();
+        postgres.stop();
+    }
+
+    @Test
+    void importCatalogShouldInsertMoviesGenresAndLinks() {
+        CatalogImportDao.Result result = catalogImportDao.importCatalog(csv("""
+                title,release_date,director,duration_minutes,description,genres
+                Star Wars,1999-05-19,George Lukas,136,The first Star Wars episode,Action|Adventure
+                The Avengers,2012-04-11,Joss Whedon,143,Marvel Avengers,Action|Superheroes
+                """), CatalogImportDao.Format.CSV);
+
+        assertThat(result).isEqualTo(new CatalogImportDao.Result(2, 2, 0, 3, 4));
+        assertThat(new Table(dataSource, "movies")).hasNumberOfRows(2);
+        assertThat(new Table(dataSource, "genres")).hasNumberOfRows(3);
+        assertThat(new Table(dataSource, "movie_to_genre")).hasNumberOfRows(4);
+    }
+
+    @Test
+    void importCatalogShouldUpdateExistingMoviesAndReuseGenres() {
+        moviesDao.save(new MoviesEntity(0, "Star Wars", LocalDate.of(1999, 5, 19),
+                "George Lukas", 120, "Old description", List.of("Action")));
+
+        CatalogImportDao.Result result = catalogImportDao.importCatalog(csv("""
+                title\trelease_date\tdirector\tduration_minutes\tdescription\tgenres
+                Star Wars\t1999-05-19\tGeorge Lukas\t136\tThe first Star Wars episode\tAction|Fantasy
+                """), CatalogImportDao.Format.TSV);
+
+        assertThat(result).isEqualTo(new CatalogImportDao.Result(1, 0, 1, 1, 1));
+        assertThat(moviesDao.findById(1).getDurationMinutes()).isEqualTo(136);
+        assertThat(moviesDao.findById(1).getGenres()).containsExactly("Action", "Fantasy");
+    }
+
+    @Test
+    void importCatalogShouldMatchGenresIgnoringCaseAndWhitespace() {
+        moviesDao.save(new MoviesEntity(0, "Star Wars", LocalDate.of(1999, 5, 19),
+                "George Lukas", 120, "Old description", List.of("Science Fiction")));
+
+        CatalogImportDao.Result result = catalogImportDao.importCatalog(csv("""
+                title,release_date,director,duration_minutes,description,genres
+                Star Wars,1999-05-19,George Lukas,120,Old description,science  fiction | Action
+                The Avengers,2012-04-11,Joss Whedon,143,Marvel Avengers,ACTION|Superheroes
+                """), CatalogImportDao.Format.CSV);
+
+        assertThat(result.genresInserted()).isEqualTo(2);
+        assertThat(new Table(dataSource, "genres")).hasNumberOfRows(3);
+        assertThat(moviesDao.findById(1).getGenres()).containsExactly("Science Fiction", "Action");
+    }
+
+    @Test
+    void importCatalogShouldKeepLastLineOfRepeatedMovie() {
+        catalogImportDao.importCatalog(csv("""
+                title,release_date,director,duration_minutes,description,genres
+                Star Wars,1999-05-19,George Lukas,120,First cut,Action
+                Star Wars,1999-05-19,George Lukas,136,Final cut,Action
+                """), CatalogImportDao.Format.CSV);
+
+        assertThat(moviesDao.findById(1).getDescription()).isEqualTo("Final cut");
+    }
+
+    @Test
+    void importCatalogShouldLinkOnlyGenresOfLastLineOfRepeatedMovie() {
+        CatalogImportDao.Result result = catalogImportDao.importCatalog(csv("""
+                title,release_date,director,duration_minutes,description,genres
+                Star Wars,1999-05-19,George Lukas,120,First cut,Western
+                Star Wars,1999-05-19,George Lukas,136,Final cut,Action|Fantasy
+                """), CatalogImportDao.Format.CSV);
+
+        assertThat(result.genresInserted()).isEqualTo(2);
+        assertThat(moviesDao.findById(1).getGenres()).containsExactly("Action", "Fantasy");
+    }
+
+    @Test
+    void importCatalogShouldOnlyTouchLowestIdOfDuplicatedMovie() {
+        MoviesEntity movie = new MoviesEntity(0, "Star Wars", LocalDate.of(1999, 5, 19),
+                "George Lukas", 120, "Old description", List.of("Action"));
+        moviesDao.save(movie);
+        moviesDao.save(movie);
+
+        catalogImportDao.importCatalog(csv("""
+                title,release_date,director,duration_minutes,description,genres
+                Star Wars,1999-05-19,George Lukas,136,New description,Fantasy
+                """), CatalogImportDao.Format.CSV);
+
+        assertThat(moviesDao.findById(1).getDescription()).isEqualTo("New description");
+        assertThat(moviesDao.findById(1).getGenres()).containsExactly("Action", "Fantasy");
+        assertThat(moviesDao.findById(2).getDescription()).isEqualTo("Old description");
+        assertThat(moviesDao.findById(2).getGenres()).containsExactly("Action");
+    }
+
+    @Test
+    void importCatalogShouldRollBackWhenRowIsInvalid() {
+        InputStream catalog = csv("""
+                title,release_date,director,duration_minutes,description,genres
+                Star Wars,not a date,George Lukas,136,The first Star Wars episode,Action
+                """);
+
+        org.junit.jupiter.api.Assertions.assertThrows(RuntimeException.class,
+                () -> catalogImportDao.importCatalog(catalog, CatalogImportDao.Format.CSV));
+
+        assertThat(new Table(dataSource, "movies")).hasNumberOfRows(0);
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
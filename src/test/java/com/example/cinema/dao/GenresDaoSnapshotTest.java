@@ -0,0 +1,157 @@
+package com.example.cinema.dao;
+
+import com.example.cinema.model.dto.CursorPage;
+import com.example.cinema.model.entity.GenresEntity;
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class GenresDaoSnapshotTest {
+    private ConnectionManager connectionManager;
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private GenresDao genresDao;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionManager = mock(ConnectionManager.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+
+        doReturn(connection).when(connectionManager).get();
+        doReturn(connection).when(connectionManager).getForRead();
+        doReturn(true).when(connection).getAutoCommit();
+        doReturn(statement).when(connection).prepareStatement(anyString());
+        doReturn(statement).when(connection).prepareStatement(anyString(), anyInt());
+        doReturn(resultSet).when(statement).executeQuery();
+        doReturn(resultSet).when(statement).getGeneratedKeys();
+        doReturn(1).when(statement).executeUpdate();
+        doReturn(7).when(resultSet).getInt("id");
+
+        genresDao = new GenresDao(connectionManager);
+        loadGenres();
+        doReturn(true).when(resultSet).next();
+        clearInvocations(connectionManager, statement);
+    }
+
+    @Test
+    void resolveIdsShouldHitDatabaseOncePerNormalizedTitle() throws SQLException {
+        doReturn("Action").when(resultSet).getString("genre");
+        genresDao.resolveIds(List.of("Action"), connection);
+
+        Map<String, Integer> ids = genresDao.resolveIds(List.of(" action ", "ACTION", "Action"), connection);
+
+        assertThat(ids).containsOnly(Map.entry(" action ", 7), Map.entry("ACTION", 7), Map.entry("Action", 7));
+        verify(statement, times(1)).executeQuery();
+        verify(statement, times(2)).setString(anyInt(), eq("Action"));
+    }
+
+    @Test
+    void resolveIdsShouldNotPublishInsideTransactionUntilRemembered() throws SQLException {
+        doReturn("Drama").when(resultSet).getString("genre");
+        doReturn(false).when(connection).getAutoCommit();
+
+        Map<String, Integer> ids = genresDao.resolveIds(List.of("Drama"), connection);
+        genresDao.resolveIds(List.of("Drama"), connection);
+        assertThat(genresDao.findById(7)).isNull();
+
+        genresDao.remember(ids);
+        genresDao.resolveIds(List.of("Drama"), connection);
+
+        verify(statement, times(2)).executeQuery();
+        assertThat(genresDao.findById(7)).isEqualTo(new GenresEntity(7, "Drama"));
+    }
+
+    @Test
+    void updateShouldReplaceTitleInSnapshot() throws SQLException {
+        doReturn("Scifi").when(resultSet).getString("genre");
+        genresDao.resolveIds(List.of("Scifi"), connection);
+
+        genresDao.update(new GenresEntity(7, "Sci-Fi"));
+        assertThat(genresDao.findByGenreTitle("sci-fi")).isEqualTo(new GenresEntity(7, "Sci-Fi"));
+        genresDao.resolveIds(List.of("Scifi"), connection);
+
+        verify(statement, times(2)).executeQuery();
+    }
+
+    @Test
+    void deleteShouldRemoveGenreFromSnapshot() throws SQLException {
+        doReturn("Western").when(resultSet).getString("genre");
+        genresDao.resolveIds(List.of("Western"), connection);
+
+        genresDao.delete(7);
+        genresDao.resolveIds(List.of("Western"), connection);
+
+        verify(statement, times(2)).executeQuery();
+    }
+
+    @Test
+    void savedGenresShouldBeReadWithoutBorrowingConnection() {
+        genresDao.save(new GenresEntity("Noir"));
+        clearInvocations(connectionManager);
+
+        assertThat(genresDao.findById(7)).isEqualTo(new GenresEntity(7, "Noir"));
+        assertThat(genresDao.findByGenreTitle(" NOIR ")).isEqualTo(new GenresEntity(7, "Noir"));
+        assertThat(genresDao.findByIds(List.of(7, 8))).containsExactly(new GenresEntity(7, "Noir"));
+        assertThat(genresDao.findAll()).containsExactly(new GenresEntity(7, "Noir"));
+        verifyNoInteractions(connectionManager);
+    }
+
+    @Test
+    void returnedGenresShouldNotChangeSnapshot() {
+        genresDao.save(new GenresEntity("Noir"));
+
+        genresDao.findById(7).setTitle("Changed");
+
+        assertThat(genresDao.findById(7).getTitle()).isEqualTo("Noir");
+    }
+
+    @Test
+    void findPageShouldWalkSnapshotByCursor() throws SQLException {
+        loadGenres(new GenresEntity(1, "Action"), new GenresEntity(2, "Drama"), new GenresEntity(5, "Noir"));
+
+        CursorPage<GenresEntity> first = genresDao.findPage(null, null, 2);
+        CursorPage<GenresEntity> second = genresDao.findPage(first.getNextCursor(), null, 2);
+        CursorPage<GenresEntity> back = genresDao.findPage(null, second.getPreviousCursor(), 2);
+
+        assertThat(first.getItems()).extracting(GenresEntity::getId).containsExactly(1, 2);
+        assertThat(second.getItems()).extracting(GenresEntity::getId).containsExactly(5);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(back).isEqualTo(first);
+    }
+
+    private void loadGenres(GenresEntity... genres) throws SQLException {
+        ResultSet rows = mock(ResultSet.class);
+        Boolean[] next = new Boolean[genres.length];
+        Integer[] ids = new Integer[genres.length];
+        String[] titles = new String[genres.length];
+
+        for (int i = 0; i < genres.length; i++) {
+            next[i] = i + 1 < genres.length;
+            ids[i] = genres[i].getId();
+            titles[i] = genres[i].getTitle();
+        }
+        when(rows.next()).thenReturn(genres.length > 0, next);
+        if (genres.length > 0) {
+            when(rows.getInt("id")).thenReturn(ids[0], Arrays.copyOfRange(ids, 1, ids.length));
+            when(rows.getString("genre")).thenReturn(titles[0], Arrays.copyOfRange(titles, 1, titles.length));
+        }
+
+        doReturn(rows).doReturn(resultSet).when(statement).executeQuery();
+        genresDao.reload();
+    }
+}
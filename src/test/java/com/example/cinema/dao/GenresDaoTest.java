@@ -1,6 +1,7 @@
 package com.example.cinema.dao;
 
 import com.example.cinema.model.entity.GenresEntity;
+import com.example.cinema.model.entity.MoviesEntity;
 import com.example.cinema.util.connection.pool.ConnectionManager;
 import lombok.NonNull;
 import org.assertj.db.type.Source;
@@ -11,6 +12,7 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,6 +30,7 @@ class GenresDaoTest {
             .withDatabaseName("cinema_repository")
             .withAccessToHost(true);
 
+    static ConnectionManager connectionManager;
     static GenresDao genresDao;
     static Source dataSource;
     static Table genresTable;
@@ -36,7 +39,7 @@ class GenresDaoTest {
     void setUp() {
         postgres.start();
 
-        var connectionManager = new ConnectionManager(
+        connectionManager = new ConnectionManager(
                 postgres.getPassword(),
                 postgres.getUsername(),
                 postgres.getJdbcUrl(),
@@ -218,6 +221,20 @@ class GenresDaoTest {
         assertThat(shouldNotExist).isNull();
     }
 
+    @Test
+    void deleteShouldDeleteGenresAndTheirMovieLinks() {
+        var moviesDao = new MoviesDao(genresDao, connectionManager);
+        moviesDao.save(new MoviesEntity(0, "Star Wars", LocalDate.of(1999, 5, 19),
+                "George Lukas", 136, "The first Star Wars episode", List.of("Adventure", "Fantasy")));
+
+        int actualDeleted = genresDao.delete(List.of(1, 2));
+
+        assertThat(actualDeleted).isEqualTo(2);
+        assertThat(genresTable).hasNumberOfRows(0);
+        assertThat(new Table(dataSource, "movie_to_genre")).hasNumberOfRows(0);
+        assertThat(moviesDao.findById(1).getGenres()).isEmpty();
+    }
+
     @Test
     void deleteShouldReturnFalseCauseNoSuchIdFoundAndCheckThatSpecifiedEntityIsNotExistInDB() {
         int fakeId = 0;
@@ -0,0 +1,52 @@
+package com.example.cinema.dao;
+
+import com.example.cinema.model.dto.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysetTest {
+
+    @Test
+    void toPageShouldDropExtraRowAndPointToNextPage() {
+        CursorPage<Integer> page = Keyset.toPage(rows(1, 2, 3), 2, null, null, Integer::intValue);
+
+        assertThat(page.getItems()).containsExactly(1, 2);
+        assertThat(page.getPreviousCursor()).isNull();
+        assertThat(page.getNextCursor()).isEqualTo(2);
+    }
+
+    @Test
+    void toPageShouldEndOnLastPage() {
+        CursorPage<Integer> page = Keyset.toPage(rows(3), 2, 2, null, Integer::intValue);
+
+        assertThat(page.getItems()).containsExactly(3);
+        assertThat(page.getPreviousCursor()).isEqualTo(3);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void toPageShouldRestoreAscendingOrderWhenReadingBackward() {
+        CursorPage<Integer> page = Keyset.toPage(rows(6, 5, 4), 2, null, 7, Integer::intValue);
+
+        assertThat(page.getItems()).containsExactly(5, 6);
+        assertThat(page.getPreviousCursor()).isEqualTo(5);
+        assertThat(page.getNextCursor()).isEqualTo(6);
+    }
+
+    @Test
+    void toPageShouldStopAtFirstPageWhenReadingBackward() {
+        CursorPage<Integer> page = Keyset.toPage(rows(2, 1), 2, null, 3, Integer::intValue);
+
+        assertThat(page.getItems()).containsExactly(1, 2);
+        assertThat(page.hasPrevious()).isFalse();
+        assertThat(page.getNextCursor()).isEqualTo(2);
+    }
+
+    private static List<Integer> rows(Integer... ids) {
+        return new ArrayList<>(List.of(ids));
+    }
+}
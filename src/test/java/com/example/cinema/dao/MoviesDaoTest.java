@@ -1,5 +1,11 @@
 package com.example.cinema.dao;
 
+import com.example.cinema.exception.DaoException;
+import com.example.cinema.model.dto.CursorPage;
+import com.example.cinema.model.dto.FilterPage;
+import com.example.cinema.model.dto.MovieFilter;
+import com.example.cinema.model.dto.MoviesPatchDto;
+import com.example.cinema.model.dto.SearchPage;
 import com.example.cinema.model.entity.MoviesEntity;
 import com.example.cinema.util.connection.pool.ConnectionManager;
 import lombok.NonNull;
@@ -15,6 +21,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.db.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Testcontainers
@@ -28,6 +35,7 @@ class MoviesDaoTest {
             .withDatabaseName("cinema_repository")
             .withAccessToHost(true);
 
+    static ConnectionManager connectionManager;
     static MoviesDao moviesDao;
     static GenresDao genresDao;
     static Source dataSource;
@@ -37,7 +45,7 @@ class MoviesDaoTest {
     void setUp() {
         postgres.start();
 
-        var connectionManager = new ConnectionManager(
+        connectionManager = new ConnectionManager(
                 postgres.getPassword(),
                 postgres.getUsername(),
                 postgres.getJdbcUrl(),
@@ -86,6 +94,29 @@ class MoviesDaoTest {
         assertThat(actualEntity).isEqualTo(expectedEntity);
     }
 
+    @Test
+    void saveListShouldShareGenresAndReturnGeneratedIdsInOrder() {
+        List<MoviesEntity> saved = moviesDao.save(getListOfMovies());
+
+        assertThat(saved).extracting(MoviesEntity::getId).containsExactly(1, 2, 3);
+        assertThat(new Table(dataSource, "genres")).hasNumberOfRows(7);
+        assertThat(new Table(dataSource, "movie_to_genre")).hasNumberOfRows(11);
+        assertThat(moviesDao.findById(2).getGenres()).containsExactly("Action", "Adventure", "Medieval", "Drama");
+    }
+
+    @Test
+    void saveListShouldRollBackWholeBatchWhenOneMovieFails() {
+        List<MoviesEntity> movies = new ArrayList<>(getListOfMovies());
+        MoviesEntity invalid = getEntity();
+        invalid.setTitle("x".repeat(201));
+        movies.add(invalid);
+
+        Assertions.assertThrows(DaoException.class, () -> moviesDao.save(movies));
+
+        assertThat(moviesTable).hasNumberOfRows(0);
+        assertThat(new Table(dataSource, "genres")).hasNumberOfRows(0);
+    }
+
     @Test
     void findByIdShouldReturnMovieAndCheckExistingEntityInDB() {
         MoviesEntity expectedEntity = getEntity();
@@ -145,6 +176,119 @@ class MoviesDaoTest {
         assertThat(actualListOfMovies).containsAll(expectedListOfMovies);
     }
 
+    @Test
+    void findAllShouldLoadMoviesWithGenresInSingleStatement() {
+        moviesDao.save(getListOfMovies());
+        long before = preparedStatements();
+
+        List<MoviesEntity> actualListOfMovies = moviesDao.findAll();
+
+        assertThat(preparedStatements() - before).isEqualTo(1);
+        assertThat(actualListOfMovies).containsExactlyElementsOf(getListOfMovies());
+    }
+
+    @Test
+    void findByIdShouldLoadMovieWithoutGenresInSingleStatement() {
+        MoviesEntity expectedEntity = getEntity();
+        expectedEntity.setGenres(List.of());
+        int id = moviesDao.save(expectedEntity).getId();
+        long before = preparedStatements();
+
+        MoviesEntity actualEntity = moviesDao.findById(id);
+
+        assertThat(preparedStatements() - before).isEqualTo(1);
+        assertThat(actualEntity).isEqualTo(expectedEntity);
+    }
+
+    @Test
+    void findPageShouldWalkMoviesForwardAndBackwardByCursor() {
+        List<MoviesEntity> saved = moviesDao.save(getListOfMovies());
+
+        CursorPage<MoviesEntity> first = moviesDao.findPage(null, null, 2);
+        CursorPage<MoviesEntity> second = moviesDao.findPage(first.getNextCursor(), null, 2);
+        CursorPage<MoviesEntity> back = moviesDao.findPage(null, second.getPreviousCursor(), 2);
+
+        assertThat(first.getItems()).containsExactlyElementsOf(saved.subList(0, 2));
+        assertThat(first.hasPrevious()).isFalse();
+        assertThat(second.getItems()).containsExactly(saved.get(2));
+        assertThat(second.hasNext()).isFalse();
+        assertThat(back).isEqualTo(first);
+    }
+
+    @Test
+    void searchShouldRankTitleMatchesAboveDescriptionMatches() {
+        List<MoviesEntity> saved = moviesDao.save(getListOfMovies());
+
+        SearchPage<MoviesEntity> actual = moviesDao.search("marvel or star", 10, null);
+
+        assertThat(actual.getItems()).containsExactly(saved.get(0), saved.get(2));
+        assertThat(actual.hasNext()).isFalse();
+    }
+
+    @Test
+    void searchShouldContinueFromCursor() {
+        List<MoviesEntity> saved = moviesDao.save(getListOfMovies());
+
+        SearchPage<MoviesEntity> first = moviesDao.search("first", 1, null);
+        SearchPage<MoviesEntity> second = moviesDao.search("first", 1, first.getNextCursor());
+
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.hasNext()).isFalse();
+        assertThat(List.of(first.getItems().get(0), second.getItems().get(0)))
+                .containsExactlyInAnyOrder(saved.get(0), saved.get(1));
+    }
+
+    @Test
+    void findByFilterShouldMatchMoviesHavingAllGenresWithinReleaseDates() {
+        List<MoviesEntity> saved = moviesDao.save(getListOfMovies());
+        MovieFilter filter = new MovieFilter();
+        filter.setGenreIds(List.of(genresDao.findByGenreTitle("Action").getId(),
+                genresDao.findByGenreTitle("Drama").getId()));
+        filter.setGenreMatch(MovieFilter.GenreMatch.ALL);
+        filter.setReleasedFrom(LocalDate.of(2000, 1, 1));
+
+        FilterPage<MoviesEntity> actual = moviesDao.findByFilter(filter, 10, null);
+
+        assertThat(actual.getItems()).containsExactly(saved.get(1));
+        assertThat(actual.hasNext()).isFalse();
+    }
+
+    @Test
+    void findByFilterShouldWalkNewestFirstByCursor() {
+        List<MoviesEntity> saved = moviesDao.save(getListOfMovies());
+        MovieFilter filter = new MovieFilter();
+        filter.setMinDuration(60);
+        filter.setSort(MovieFilter.Sort.RELEASE_DATE_DESC);
+
+        FilterPage<MoviesEntity> first = moviesDao.findByFilter(filter, 1, null);
+        FilterPage<MoviesEntity> second = moviesDao.findByFilter(filter, 1, first.getNextCursor());
+
+        assertThat(first.getItems()).containsExactly(saved.get(2));
+        assertThat(second.getItems()).containsExactly(saved.get(0));
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void streamAllShouldPassEveryMovieToActionInIdOrder() {
+        List<MoviesEntity> saved = moviesDao.save(getListOfMovies());
+        List<MoviesEntity> streamed = new ArrayList<>();
+
+        moviesDao.streamAll(streamed::add);
+
+        assertThat(streamed).containsExactlyElementsOf(saved);
+    }
+
+    @Test
+    void findByIdsShouldReturnMoviesInRequestedOrderInSingleStatement() {
+        List<MoviesEntity> saved = moviesDao.save(getListOfMovies());
+        long before = preparedStatements();
+
+        List<MoviesEntity> actual = moviesDao.findByIds(List.of(3, 0, 1, 3));
+
+        assertThat(preparedStatements() - before).isEqualTo(1);
+        assertThat(actual).containsExactly(saved.get(2), saved.get(0));
+    }
+
     @Test
     void updateShouldUpdateMovieReturnTrueAndCheckUpdatedEntityInDB() {
         String updatedTitle = "New title";
@@ -181,6 +325,54 @@ class MoviesDaoTest {
         assertThat(actualUpdatedEntity).isEqualTo(expectedUpdatedEntity);
     }
 
+    @Test
+    void patchShouldChangeOnlyGivenFieldsAndBumpVersion() {
+        MoviesEntity saved = moviesDao.save(getEntity());
+        MoviesPatchDto patch = new MoviesPatchDto();
+        patch.setDescription("New description");
+        patch.setGenres(List.of("Adventure", "Space opera"));
+        patch.setVersion(saved.getVersion());
+
+        boolean actualIsPatched = moviesDao.patch(saved.getId(), patch);
+        MoviesEntity actual = moviesDao.findById(saved.getId());
+
+        Assertions.assertTrue(actualIsPatched);
+        assertThat(actual.getTitle()).isEqualTo(saved.getTitle());
+        assertThat(actual.getDescription()).isEqualTo("New description");
+        assertThat(actual.getGenres()).containsExactly("Adventure", "Space opera");
+        assertThat(actual.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void patchShouldNotChangeMovieWhenVersionIsStale() {
+        MoviesEntity saved = moviesDao.save(getEntity());
+        MoviesPatchDto first = new MoviesPatchDto();
+        first.setTitle("First editor");
+        first.setVersion(saved.getVersion());
+        MoviesPatchDto second = new MoviesPatchDto();
+        second.setTitle("Second editor");
+        second.setVersion(saved.getVersion());
+
+        Assertions.assertTrue(moviesDao.patch(saved.getId(), first));
+        Assertions.assertFalse(moviesDao.patch(saved.getId(), second));
+
+        assertThat(moviesDao.findById(saved.getId()).getTitle()).isEqualTo("First editor");
+    }
+
+    @Test
+    void updateShouldNotChangeMovieWhenVersionIsStale() {
+        MoviesEntity saved = moviesDao.save(getEntity());
+        MoviesEntity first = moviesDao.findById(saved.getId());
+        first.setTitle("First editor");
+        MoviesEntity second = moviesDao.findById(saved.getId());
+        second.setTitle("Second editor");
+
+        Assertions.assertTrue(moviesDao.update(first));
+        Assertions.assertFalse(moviesDao.update(second));
+
+        assertThat(moviesDao.findById(saved.getId()).getTitle()).isEqualTo("First editor");
+    }
+
     @Test
     void updateShouldNotUpdateMovieReturnFalseCauseNoIdFoundAndCheckThatSpecifiedEntityIsNotExistInDB() {
         int fakeId = 0;
@@ -211,6 +403,28 @@ class MoviesDaoTest {
         assertThat(shouldNotExist).isNull();
     }
 
+    @Test
+    void deleteShouldDeleteMoviesAndTheirGenreLinksInSingleStatement() {
+        moviesDao.save(getListOfMovies());
+        long before = preparedStatements();
+
+        int actualDeleted = moviesDao.delete(List.of(1, 3, 42));
+
+        assertThat(preparedStatements() - before).isEqualTo(1);
+        assertThat(actualDeleted).isEqualTo(2);
+        assertThat(moviesTable).hasNumberOfRows(1);
+        assertThat(new Table(dataSource, "movie_to_genre")).hasNumberOfRows(4);
+    }
+
+    @Test
+    void deleteShouldDeleteMovieWithoutGenres() {
+        MoviesEntity entity = getEntity();
+        entity.setGenres(List.of());
+        int id = moviesDao.save(entity).getId();
+
+        Assertions.assertTrue(moviesDao.delete(id));
+    }
+
     @Test
     void deleteShouldNotDeleteMovieReturnFalseCauseNoSuchIdFoundAndCheckThatSpecifiedEntityIsNotExistInDB() {
         int fakeId = 0;
@@ -225,6 +439,11 @@ class MoviesDaoTest {
         assertThat(shouldNotExist).isNull();
     }
 
+    private static long preparedStatements() {
+        var stats = connectionManager.getPool().getStatementCacheStats();
+        return stats.getHits() + stats.getMisses();
+    }
+
     @NonNull
     private static MoviesEntity getEntity() {
         return new MoviesEntity(
@@ -0,0 +1,97 @@
+package com.example.cinema.dao;
+
+import com.example.cinema.model.dto.DirectorStatsDto;
+import com.example.cinema.model.dto.GenreStatsDto;
+import com.example.cinema.model.dto.ReleaseYearStatsDto;
+import com.example.cinema.model.entity.MoviesEntity;
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Testcontainers
+class StatsDaoTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:15.4"
+    )
+            .withInitScript("init.sql")
+            .withDatabaseName("cinema_repository");
+
+    static ConnectionManager connectionManager;
+    static StatsDao statsDao;
+    static MoviesDao moviesDao;
+
+    @BeforeEach
+    void setUp() {
+        postgres.start();
+
+        connectionManager = new ConnectionManager(
+                postgres.getPassword(),
+                postgres.getUsername(),
+                postgres.getJdbcUrl(),
+                4);
+        connectionManager.initConnectionPool();
+
+        statsDao = new StatsDao(connectionManager);
+        moviesDao = new MoviesDao(new GenresDao(connectionManager), connectionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.closePool();
+        postgres.stop();
+    }
+
+    @Test
+    void statsShouldReflectMoviesOnlyAfterRefresh() {
+        moviesDao.save(List.of(
+                new MoviesEntity(0, "Star Wars", LocalDate.of(1999, 5, 19), "George Lukas", 136,
+                        "The first Star Wars episode", List.of("Action", "Fantasy")),
+                new MoviesEntity(0, "The Avengers", LocalDate.of(2012, 4, 11), "Joss Whedon", 144,
+                        "Marvel Avengers", List.of("Action"))));
+
+        assertThat(statsDao.findReleaseYearStats()).isEmpty();
+
+        assertThat(statsDao.refresh()).isTrue();
+
+        assertThat(statsDao.findGenreStats())
+                .extracting(GenreStatsDto::getGenre, GenreStatsDto::getMovies, GenreStatsDto::getAverageDuration)
+                .containsExactly(
+                        tuple("Action", 2L, 140.0),
+                        tuple("Fantasy", 1L, 136.0));
+        assertThat(statsDao.findReleaseYearStats()).containsExactly(
+                new ReleaseYearStatsDto(1999, 1),
+                new ReleaseYearStatsDto(2012, 1));
+        assertThat(statsDao.findTopDirectorStats(1)).containsExactly(
+                new DirectorStatsDto("George Lukas", 1));
+    }
+
+    @Test
+    void refreshShouldSkipWhileAnotherNodeHoldsRefreshLock() throws Exception {
+        moviesDao.save(new MoviesEntity(0, "Star Wars", LocalDate.of(1999, 5, 19), "George Lukas", 136,
+                "The first Star Wars episode", List.of("Action")));
+
+        try (Connection otherNode = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             var statement = otherNode.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(x'7374617473'::bigint)");
+
+            assertThat(statsDao.refresh()).isFalse();
+        }
+
+        assertThat(statsDao.findReleaseYearStats()).isEmpty();
+        assertThat(statsDao.refresh()).isTrue();
+    }
+}
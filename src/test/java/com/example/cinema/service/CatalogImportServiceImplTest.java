@@ -0,0 +1,123 @@
+package com.example.cinema.service;
+
+import com.example.cinema.dao.CatalogImportDao;
+import com.example.cinema.dao.GenresDao;
+import com.example.cinema.exception.BadRequestException;
+import com.example.cinema.exception.DaoException;
+import com.example.cinema.model.dto.ImportJobDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportServiceImplTest {
+    private static final String CATALOG = """
+            title,release_date,director,duration_minutes,description,genres
+            Star Wars,1999-05-19,George Lukas,136,The first Star Wars episode,Action|Adventure
+            """;
+
+    @TempDir
+    Path tempDir;
+    @Mock
+    private CatalogImportDao catalogImportDao;
+    @Mock
+    private GenresDao genresDao;
+    @Mock
+    private MovieTitleIndex movieTitleIndex;
+    @InjectMocks
+    private CatalogImportServiceImpl catalogImportService;
+
+    @AfterEach
+    void tearDown() {
+        catalogImportService.shutdown();
+    }
+
+    @Test
+    void submitShouldCopyWholeFileReportProgressAndDeleteIt() throws Exception {
+        Path catalog = Files.writeString(tempDir.resolve("catalog.csv"), CATALOG);
+        doAnswer(invocation -> {
+            InputStream input = invocation.getArgument(0);
+            input.readAllBytes();
+            return new CatalogImportDao.Result(1, 1, 0, 2, 2);
+        }).when(catalogImportDao).importCatalog(any(), eq(CatalogImportDao.Format.CSV));
+
+        ImportJobDto submitted = catalogImportService.submit(catalog, CatalogImportDao.Format.CSV);
+        ImportJobDto finished = awaitFinished(submitted.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(ImportJobDto.Status.COMPLETED);
+        assertThat(finished.getBytesRead()).isEqualTo(finished.getTotalBytes()).isEqualTo(CATALOG.length());
+        assertThat(finished.getMoviesInserted()).isEqualTo(1);
+        assertThat(finished.getLinksInserted()).isEqualTo(2);
+        assertThat(catalog).doesNotExist();
+        verify(genresDao, timeout(5000)).reload();
+        verify(movieTitleIndex, timeout(5000)).rebuild();
+    }
+
+    @Test
+    void submitShouldReportFailure() throws Exception {
+        Path catalog = Files.writeString(tempDir.resolve("catalog.csv"), CATALOG);
+        doThrow(new IllegalStateException("bad row")).when(catalogImportDao).importCatalog(any(), any());
+
+        ImportJobDto submitted = catalogImportService.submit(catalog, CatalogImportDao.Format.CSV);
+        ImportJobDto finished = awaitFinished(submitted.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(ImportJobDto.Status.FAILED);
+        assertThat(finished.getError()).isEqualTo("bad row");
+        assertThat(catalog).doesNotExist();
+    }
+
+    @Test
+    void submitShouldReportCompletionWhenCacheRefreshFails() throws Exception {
+        Path catalog = Files.writeString(tempDir.resolve("catalog.csv"), CATALOG);
+        doReturn(new CatalogImportDao.Result(1, 1, 0, 2, 2)).when(catalogImportDao).importCatalog(any(), any());
+        doThrow(new DaoException(new SQLException("connection lost"))).when(genresDao).reload();
+
+        ImportJobDto submitted = catalogImportService.submit(catalog, CatalogImportDao.Format.CSV);
+        ImportJobDto finished = awaitFinished(submitted.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(ImportJobDto.Status.COMPLETED);
+        assertThat(finished.getError()).isNull();
+        verify(genresDao, timeout(5000)).reload();
+    }
+
+    @Test
+    void getJobShouldThrowExceptionImportJobDoesNotExist() {
+        UUID fakeId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> catalogImportService.getJob(fakeId))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Import job '%s' does not exist".formatted(fakeId));
+    }
+
+    private ImportJobDto awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ImportJobDto job = catalogImportService.getJob(id);
+
+        while (job.getFinishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = catalogImportService.getJob(id);
+        }
+        return job;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.cinema.service;
 
 import com.example.cinema.dao.GenresDao;
 import com.example.cinema.exception.BadRequestException;
+import com.example.cinema.model.dto.CursorPage;
 import com.example.cinema.model.dto.GenresDto;
 import com.example.cinema.model.entity.GenresEntity;
 import com.example.cinema.util.mapper.GenresMapper;
@@ -14,6 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -59,6 +61,40 @@ class GenreServiceImplTest {
         verify(genresDao, times(1)).findAll();
     }
 
+    @Test
+    void getGenresPageShouldReturnPageOfGenres() {
+        var page = new CursorPage<>(List.of(new GenresEntity(3, "Drama")), 3, null, 20);
+
+        doReturn(page).when(genresDao).findPage(2, null, 20);
+        CursorPage<GenresDto> actual = genreService.getGenresPage(2, null, 20);
+
+        assertThat(actual.getItems()).containsExactly(new GenresDto(3, "Drama"));
+        assertThat(actual.hasPrevious()).isTrue();
+        assertThat(actual.hasNext()).isFalse();
+    }
+
+    @Test
+    void getGenresPageShouldThrowExceptionNoGenresFoundOnFirstPage() {
+        doReturn(new CursorPage<>(List.of(), null, null, 20)).when(genresDao).findPage(null, null, 20);
+
+        assertThatThrownBy(() -> genreService.getGenresPage(null, null, 20))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("No genres found");
+    }
+
+    @Test
+    void getGenresByIdsShouldKeepDaoOrder() {
+        List<GenresEntity> genresEntities = List.of(new GenresEntity(2, "Fantasy"), new GenresEntity(1, "Adventure"));
+
+        doReturn(genresEntities).when(genresDao).findByIds(List.of(2, 1));
+        doReturn(new GenresDto(2, "Fantasy")).when(genresMapper).entityToDto(genresEntities.get(0));
+        doReturn(new GenresDto(1, "Adventure")).when(genresMapper).entityToDto(genresEntities.get(1));
+
+        List<GenresDto> actual = genreService.getGenresByIds(List.of(2, 1));
+
+        assertThat(actual).containsExactly(new GenresDto(2, "Fantasy"), new GenresDto(1, "Adventure"));
+    }
+
     @Test
     void getGenreByIdShouldReturnGenre() {
         GenresEntity genresEntity = getEntity();
@@ -178,6 +214,17 @@ class GenreServiceImplTest {
         verify(genresDao, times(1)).delete(fakeId);
     }
 
+    @Test
+    void deleteGenresShouldThrowExceptionTooManyIds() {
+        List<Integer> ids = IntStream.rangeClosed(1, CursorPage.MAX_SIZE + 1).boxed().toList();
+
+        assertThatThrownBy(() -> genreService.deleteGenres(ids))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("No more than %s ids can be requested at once".formatted(CursorPage.MAX_SIZE));
+
+        verifyNoInteractions(genresDao);
+    }
+
     @Test
     void findMoviesByGenreIdShouldReturnListOfMovies() {
         int id = 1;
@@ -0,0 +1,108 @@
+package com.example.cinema.service;
+
+import com.example.cinema.dao.MoviesDao;
+import com.example.cinema.model.dto.MovieSuggestionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class MovieTitleIndexTest {
+    @Mock
+    private MoviesDao moviesDao;
+
+    private MovieTitleIndex movieTitleIndex;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            BiConsumer<Integer, String> action = invocation.getArgument(0);
+            action.accept(1, "Star Wars");
+            action.accept(2, "Stargate");
+            action.accept(3, "The Avengers");
+            action.accept(4, "star  trek");
+            return null;
+        }).when(moviesDao).streamTitles(any());
+
+        movieTitleIndex = new MovieTitleIndex(moviesDao);
+        movieTitleIndex.rebuild();
+    }
+
+    @Test
+    void suggestShouldReturnTitlesStartingWithPrefixInOrder() {
+        List<MovieSuggestionDto> actual = movieTitleIndex.suggest("  STAR ", 10);
+
+        assertThat(actual).containsExactly(
+                new MovieSuggestionDto(4, "star  trek"),
+                new MovieSuggestionDto(1, "Star Wars"),
+                new MovieSuggestionDto(2, "Stargate"));
+    }
+
+    @Test
+    void suggestShouldStopAtLimit() {
+        assertThat(movieTitleIndex.suggest("star", 2)).hasSize(2);
+    }
+
+    @Test
+    void suggestShouldReturnNothingForBlankOrUnknownPrefix() {
+        assertThat(movieTitleIndex.suggest(" ", 10)).isEmpty();
+        assertThat(movieTitleIndex.suggest("zzz", 10)).isEmpty();
+    }
+
+    @Test
+    void putShouldReplaceTitleOfExistingMovie() {
+        movieTitleIndex.put(3, "Avengers: Endgame");
+        movieTitleIndex.put(5, "Avatar");
+
+        assertThat(movieTitleIndex.suggest("av", 10)).containsExactly(
+                new MovieSuggestionDto(5, "Avatar"),
+                new MovieSuggestionDto(3, "Avengers: Endgame"));
+        assertThat(movieTitleIndex.suggest("the", 10)).isEmpty();
+        assertThat(movieTitleIndex.size()).isEqualTo(5);
+    }
+
+    @Test
+    void rebuildShouldKeepChangesMadeWhileLoadingWithoutBlockingThem() throws Exception {
+        var loading = new CountDownLatch(1);
+        var changed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            BiConsumer<Integer, String> action = invocation.getArgument(0);
+            action.accept(1, "Star Wars");
+            action.accept(2, "Stargate");
+            loading.countDown();
+            assertThat(changed.await(5, TimeUnit.SECONDS)).isTrue();
+            return null;
+        }).when(moviesDao).streamTitles(any());
+
+        var rebuild = new Thread(movieTitleIndex::rebuild);
+        rebuild.start();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        movieTitleIndex.put(5, "Star Dust");
+        movieTitleIndex.remove(List.of(2));
+        changed.countDown();
+        rebuild.join();
+
+        assertThat(movieTitleIndex.suggest("star", 10)).containsExactly(
+                new MovieSuggestionDto(5, "Star Dust"),
+                new MovieSuggestionDto(1, "Star Wars"));
+    }
+
+    @Test
+    void removeShouldDropMovies() {
+        movieTitleIndex.remove(List.of(1, 2));
+
+        assertThat(movieTitleIndex.suggest("star", 10))
+                .containsExactly(new MovieSuggestionDto(4, "star  trek"));
+    }
+}
@@ -2,7 +2,13 @@ package com.example.cinema.service;
 
 import com.example.cinema.dao.MoviesDao;
 import com.example.cinema.exception.BadRequestException;
+import com.example.cinema.exception.ConflictException;
+import com.example.cinema.model.dto.CursorPage;
+import com.example.cinema.model.dto.FilterPage;
+import com.example.cinema.model.dto.MovieFilter;
 import com.example.cinema.model.dto.MoviesDto;
+import com.example.cinema.model.dto.MoviesPatchDto;
+import com.example.cinema.model.dto.SearchPage;
 import com.example.cinema.model.entity.MoviesEntity;
 import com.example.cinema.util.mapper.MoviesMapper;
 import lombok.NonNull;
@@ -13,7 +19,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -25,6 +34,8 @@ class MoviesServiceImplTest {
     private MoviesDao moviesDao;
     @Mock
     private MoviesMapper moviesMapper;
+    @Mock
+    private MovieTitleIndex movieTitleIndex;
     @InjectMocks
     private MoviesServiceImpl moviesService;
 
@@ -39,6 +50,95 @@ class MoviesServiceImplTest {
         verify(moviesDao, times(1)).findAll();
     }
 
+    @Test
+    void getMoviesPageShouldMapPageAndClampSize() {
+        MoviesEntity moviesEntity = getEntity();
+        MoviesDto moviesDto = getDto();
+
+        doReturn(new CursorPage<>(List.of(moviesEntity), 1, 1, CursorPage.MAX_SIZE))
+                .when(moviesDao).findPage(5, null, CursorPage.MAX_SIZE);
+        doReturn(moviesDto).when(moviesMapper).entityToDto(moviesEntity);
+
+        CursorPage<MoviesDto> actual = moviesService.getMoviesPage(5, null, 10_000);
+
+        assertThat(actual.getItems()).containsExactly(moviesDto);
+        assertThat(actual.getPreviousCursor()).isEqualTo(1);
+        assertThat(actual.getNextCursor()).isEqualTo(1);
+        verify(moviesDao, times(1)).findPage(5, null, CursorPage.MAX_SIZE);
+    }
+
+    @Test
+    void searchShouldStripQueryClampSizeAndMapPage() {
+        MoviesEntity moviesEntity = getEntity();
+        MoviesDto moviesDto = getDto();
+
+        doReturn(new SearchPage<>("star wars", List.of(moviesEntity), "0.6:1", CursorPage.MAX_SIZE))
+                .when(moviesDao).search("star wars", CursorPage.MAX_SIZE, null);
+        doReturn(moviesDto).when(moviesMapper).entityToDto(moviesEntity);
+
+        SearchPage<MoviesDto> actual = moviesService.search("  star wars ", null, 10_000);
+
+        assertThat(actual.getItems()).containsExactly(moviesDto);
+        assertThat(actual.getNextCursor()).isEqualTo("0.6:1");
+    }
+
+    @Test
+    void searchShouldNotQueryDaoForBlankQuery() {
+        SearchPage<MoviesDto> actual = moviesService.search(" ", null, 20);
+
+        assertThat(actual.getItems()).isEmpty();
+        assertThat(actual.hasNext()).isFalse();
+        verifyNoInteractions(moviesDao);
+    }
+
+    @Test
+    void filterMoviesShouldDropBlankDirectorAndClampSize() {
+        MoviesEntity moviesEntity = getEntity();
+        MoviesDto moviesDto = getDto();
+        MovieFilter filter = new MovieFilter();
+        filter.setDirector(" ");
+        filter.setSort(null);
+
+        doReturn(new FilterPage<>(filter, List.of(moviesEntity), null, CursorPage.MAX_SIZE))
+                .when(moviesDao).findByFilter(filter, CursorPage.MAX_SIZE, null);
+        doReturn(moviesDto).when(moviesMapper).entityToDto(moviesEntity);
+
+        FilterPage<MoviesDto> actual = moviesService.filterMovies(filter, null, 10_000);
+
+        assertThat(actual.getItems()).containsExactly(moviesDto);
+        assertThat(filter.getDirector()).isNull();
+        assertThat(filter.getSort()).isEqualTo(MovieFilter.Sort.ID);
+    }
+
+    @Test
+    void filterMoviesShouldRejectTooManyGenres() {
+        MovieFilter filter = new MovieFilter();
+        filter.setGenreIds(IntStream.rangeClosed(1, CursorPage.MAX_SIZE + 1).boxed().toList());
+
+        assertThatThrownBy(() -> moviesService.filterMovies(filter, null, 20))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(moviesDao);
+    }
+
+    @Test
+    void exportAllMoviesShouldMapEachStreamedMovie() {
+        MoviesEntity moviesEntity = getEntity();
+        MoviesDto moviesDto = getDto();
+        List<MoviesDto> exported = new ArrayList<>();
+
+        doAnswer(invocation -> {
+            Consumer<MoviesEntity> action = invocation.getArgument(0);
+            action.accept(moviesEntity);
+            return null;
+        }).when(moviesDao).streamAll(any());
+        doReturn(moviesDto).when(moviesMapper).entityToDto(moviesEntity);
+
+        moviesService.exportAllMovies(exported::add);
+
+        assertThat(exported).containsExactly(moviesDto);
+        verify(moviesDao, never()).findAll();
+    }
+
     @Test
     void createShouldCreateMovie() {
         MoviesEntity moviesEntity = getEntity();
@@ -54,6 +154,7 @@ class MoviesServiceImplTest {
         assertThat(actual).isEqualTo(moviesDto);
 
         verify(moviesDao, times(1)).save(moviesEntity);
+        verify(movieTitleIndex, times(1)).put(moviesEntity.getId(), moviesEntity.getTitle());
         verify(moviesMapper, times(1)).dtoToEntity(any());
         verify(moviesMapper, times(1)).entityToDto(any());
     }
@@ -88,6 +189,33 @@ class MoviesServiceImplTest {
         verify(moviesDao, times(1)).findById(fakeId);
     }
 
+    @Test
+    void getMoviesByIdsShouldLoadAllMoviesWithOneDaoCall() {
+        MoviesEntity moviesEntity = getEntity();
+        MoviesDto moviesDto = getDto();
+        List<Integer> ids = List.of(1, 42);
+
+        doReturn(List.of(moviesEntity)).when(moviesDao).findByIds(ids);
+        doReturn(moviesDto).when(moviesMapper).entityToDto(moviesEntity);
+
+        List<MoviesDto> actual = moviesService.getMoviesByIds(ids);
+
+        assertThat(actual).containsExactly(moviesDto);
+        verify(moviesDao, times(1)).findByIds(ids);
+        verify(moviesDao, never()).findById(anyInt());
+    }
+
+    @Test
+    void getMoviesByIdsShouldThrowExceptionTooManyIds() {
+        List<Integer> ids = IntStream.rangeClosed(1, CursorPage.MAX_SIZE + 1).boxed().toList();
+
+        assertThatThrownBy(() -> moviesService.getMoviesByIds(ids))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("No more than %s ids can be requested at once".formatted(CursorPage.MAX_SIZE));
+
+        verifyNoInteractions(moviesDao);
+    }
+
     @Test
     void getMovieGenres() {
         MoviesEntity moviesEntity = getEntity();
@@ -104,6 +232,7 @@ class MoviesServiceImplTest {
         int id = 1;
         MoviesEntity moviesEntity = getEntity();
         MoviesDto moviesDto = getDto();
+        moviesDto.setVersion(0);
 
         doReturn(moviesEntity).when(moviesMapper).dtoToEntity(moviesDto);
         doReturn(true).when(moviesDao).update(moviesEntity);
@@ -118,6 +247,7 @@ class MoviesServiceImplTest {
     void updateShouldThrowExceptionMovieDoesNotExists() {
         int fakeId = 0;
         MoviesDto moviesDto = getDto();
+        moviesDto.setVersion(0);
         MoviesEntity moviesEntity = getEntity();
 
         doReturn(moviesEntity).when(moviesMapper).dtoToEntity(moviesDto);
@@ -131,6 +261,101 @@ class MoviesServiceImplTest {
         verify(moviesDao, times(1)).update(moviesEntity);
     }
 
+    @Test
+    void updateShouldRejectMovieWithoutVersion() {
+        MoviesDto moviesDto = getDto();
+
+        assertThatThrownBy(() -> moviesService.update(1, moviesDto))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("The version of the movie being changed is required");
+
+        verify(moviesDao, never()).update(any());
+    }
+
+    @Test
+    void updateShouldThrowConflictWhenVersionIsStale() {
+        MoviesDto moviesDto = getDto();
+        moviesDto.setVersion(2);
+        MoviesEntity moviesEntity = getEntity();
+
+        doReturn(moviesEntity).when(moviesMapper).dtoToEntity(moviesDto);
+        doReturn(false).when(moviesDao).update(moviesEntity);
+        doReturn(moviesEntity).when(moviesDao).findById(1);
+
+        assertThatThrownBy(() -> moviesService.update(1, moviesDto))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Movie with id '1' was changed by someone else since version 2");
+
+        verify(movieTitleIndex, never()).put(anyInt(), any());
+    }
+
+    @Test
+    void patchShouldReturnReloadedMovie() {
+        MoviesEntity moviesEntity = getEntity();
+        MoviesDto moviesDto = getDto();
+        MoviesPatchDto patch = new MoviesPatchDto();
+        patch.setDescription("New description");
+        patch.setVersion(0);
+
+        doReturn(true).when(moviesDao).patch(1, patch);
+        doReturn(moviesEntity).when(moviesDao).findById(1);
+        doReturn(moviesDto).when(moviesMapper).entityToDto(moviesEntity);
+
+        MoviesDto actual = moviesService.patch(1, patch);
+
+        assertThat(actual).isEqualTo(moviesDto);
+        verify(moviesDao, never()).update(any());
+    }
+
+    @Test
+    void patchShouldThrowConflictWhenVersionIsStale() {
+        MoviesPatchDto patch = new MoviesPatchDto();
+        patch.setTitle("New title");
+        patch.setVersion(3);
+
+        doReturn(false).when(moviesDao).patch(1, patch);
+        doReturn(getEntity()).when(moviesDao).findById(1);
+
+        assertThatThrownBy(() -> moviesService.patch(1, patch))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Movie with id '1' was changed by someone else since version 3");
+    }
+
+    @Test
+    void patchShouldThrowExceptionMovieDoesNotExist() {
+        MoviesPatchDto patch = new MoviesPatchDto();
+        patch.setGenres(List.of("Drama"));
+        patch.setVersion(0);
+
+        doReturn(false).when(moviesDao).patch(0, patch);
+        doReturn(null).when(moviesDao).findById(0);
+
+        assertThatThrownBy(() -> moviesService.patch(0, patch))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Movie with id '0' does not exist");
+    }
+
+    @Test
+    void patchShouldRejectPatchWithoutVersion() {
+        MoviesPatchDto patch = new MoviesPatchDto();
+        patch.setTitle("New title");
+
+        assertThatThrownBy(() -> moviesService.patch(1, patch))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("The version of the movie being changed is required");
+
+        verify(moviesDao, never()).patch(anyInt(), any());
+    }
+
+    @Test
+    void patchShouldRejectEmptyPatch() {
+        assertThatThrownBy(() -> moviesService.patch(1, new MoviesPatchDto()))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Nothing to update");
+
+        verifyNoInteractions(moviesDao);
+    }
+
     @Test
     void deleteShouldDeleteMovieById() {
         int id = 1;
@@ -141,6 +366,38 @@ class MoviesServiceImplTest {
         verify(moviesDao, times(1)).delete(id);
     }
 
+    @Test
+    void deleteMoviesShouldDeleteAllIdsWithOneDaoCall() {
+        List<Integer> ids = List.of(1, 2, 3);
+
+        doReturn(3).when(moviesDao).delete(ids);
+        int actual = moviesService.deleteMovies(ids);
+
+        assertThat(actual).isEqualTo(3);
+        verify(moviesDao, times(1)).delete(ids);
+        verify(moviesDao, never()).delete(anyInt());
+        verify(movieTitleIndex, times(1)).remove(ids);
+    }
+
+    @Test
+    void deleteMoviesShouldThrowExceptionTooManyIds() {
+        List<Integer> ids = IntStream.rangeClosed(1, CursorPage.MAX_SIZE + 1).boxed().toList();
+
+        assertThatThrownBy(() -> moviesService.deleteMovies(ids))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("No more than %s ids can be requested at once".formatted(CursorPage.MAX_SIZE));
+
+        verifyNoInteractions(moviesDao, movieTitleIndex);
+    }
+
+    @Test
+    void suggestShouldClampLimitAndNotTouchDao() {
+        moviesService.suggest("star", 1_000);
+
+        verify(movieTitleIndex, times(1)).suggest("star", 20);
+        verifyNoInteractions(moviesDao);
+    }
+
     @Test
     void deleteShouldThrowExceptionMovieDoesNotExist() {
         int fakeId = 0;
@@ -0,0 +1,87 @@
+package com.example.cinema.service;
+
+import com.example.cinema.dao.StatsDao;
+import com.example.cinema.exception.DaoException;
+import com.example.cinema.model.dto.CatalogStatsDto;
+import com.example.cinema.model.dto.DirectorStatsDto;
+import com.example.cinema.model.dto.GenreStatsDto;
+import com.example.cinema.model.dto.ReleaseYearStatsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsServiceImplTest {
+    @Mock
+    private StatsDao statsDao;
+
+    private StatsServiceImpl statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new StatsServiceImpl(statsDao, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void getCatalogStatsShouldReadAllViews() {
+        List<GenreStatsDto> genres = List.of(new GenreStatsDto(1, "Drama", 2, 95.5));
+        List<ReleaseYearStatsDto> years = List.of(new ReleaseYearStatsDto(2011, 2));
+        List<DirectorStatsDto> directors = List.of(new DirectorStatsDto("David Benioff", 2));
+
+        doReturn(genres).when(statsDao).findGenreStats();
+        doReturn(years).when(statsDao).findReleaseYearStats();
+        doReturn(directors).when(statsDao).findTopDirectorStats(StatsServiceImpl.TOP_DIRECTORS);
+
+        CatalogStatsDto actual = statsService.getCatalogStats();
+
+        assertThat(actual).isEqualTo(new CatalogStatsDto(genres, years, directors));
+        verify(statsDao, never()).refresh();
+    }
+
+    @Test
+    void refreshIfChangedShouldRefreshOnlyAfterTablesChanged() {
+        when(statsDao.changeCount()).thenReturn(10L, 10L, 12L);
+        doReturn(true).when(statsDao).refresh();
+
+        statsService.refreshIfChanged();
+        statsService.refreshIfChanged();
+        statsService.refreshIfChanged();
+
+        verify(statsDao, times(2)).refresh();
+    }
+
+    @Test
+    void refreshIfChangedShouldRetryAfterFailedRefresh() {
+        when(statsDao.changeCount()).thenReturn(10L);
+        doThrow(new DaoException(new SQLException("connection lost")))
+                .doReturn(true)
+                .when(statsDao).refresh();
+
+        statsService.refreshIfChanged();
+        statsService.refreshIfChanged();
+        statsService.refreshIfChanged();
+
+        verify(statsDao, times(2)).refresh();
+    }
+
+    @Test
+    void refreshIfChangedShouldRetryWhileAnotherNodeHoldsRefreshLock() {
+        when(statsDao.changeCount()).thenReturn(10L);
+        when(statsDao.refresh()).thenReturn(false, true);
+
+        statsService.refreshIfChanged();
+        statsService.refreshIfChanged();
+        statsService.refreshIfChanged();
+
+        verify(statsDao, times(2)).refresh();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.cinema.util.connection.pool;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ConnectionBagTest {
+    private final ConnectionBag bag = new ConnectionBag();
+
+    @Test
+    void borrowShouldPreferEntryLastReleasedByCurrentThread() throws Exception {
+        PoolEntry first = addEntry();
+        PoolEntry second = addEntry();
+
+        PoolEntry borrowedFirst = bag.borrow(0, () -> null);
+        PoolEntry borrowedSecond = bag.borrow(0, () -> null);
+        bag.requite(second);
+        bag.requite(first);
+
+        assertThat(borrowedFirst).isSameAs(first);
+        assertThat(borrowedSecond).isSameAs(second);
+        assertThat(bag.borrow(0, () -> null)).isSameAs(first);
+    }
+
+    @Test
+    void borrowShouldAskCreatorOnlyWhenNoEntryIsFree() throws Exception {
+        PoolEntry existing = addEntry();
+        PoolEntry created = newEntry();
+        created.setState(PoolEntry.STATE_IN_USE);
+
+        assertThat(bag.borrow(0, () -> created)).isSameAs(existing);
+        assertThat(bag.borrow(0, () -> created)).isSameAs(created);
+    }
+
+    @Test
+    void borrowShouldReturnNullAfterTimeout() throws Exception {
+        addEntry();
+        bag.borrow(0, () -> null);
+
+        assertThat(bag.borrow(TimeUnit.MILLISECONDS.toNanos(20), () -> null)).isNull();
+        assertThat(bag.getWaitingThreadCount()).isZero();
+    }
+
+    @Test
+    void reservedAndRemovedEntriesShouldNotBeBorrowed() throws Exception {
+        PoolEntry reserved = addEntry();
+        PoolEntry removed = addEntry();
+
+        assertThat(bag.reserve(reserved)).isTrue();
+        assertThat(bag.reserve(removed)).isTrue();
+        assertThat(bag.remove(removed)).isTrue();
+
+        assertThat(bag.borrow(0, () -> null)).isNull();
+        assertThat(bag.values()).containsExactly(reserved);
+
+        bag.unreserve(reserved);
+        assertThat(bag.borrow(0, () -> null)).isSameAs(reserved);
+    }
+
+    @Test
+    void concurrentBorrowersShouldNeverShareAnEntry() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            addEntry();
+        }
+        Set<PoolEntry> inUse = ConcurrentHashMap.newKeySet();
+        AtomicBoolean shared = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 500; j++) {
+                    PoolEntry entry = bag.borrow(TimeUnit.SECONDS.toNanos(10), () -> null);
+                    if (!inUse.add(entry)) {
+                        shared.set(true);
+                    }
+                    inUse.remove(entry);
+                    bag.requite(entry);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(shared).isFalse();
+        assertThat(bag.getCount(PoolEntry.STATE_NOT_IN_USE)).isEqualTo(4);
+    }
+
+    private PoolEntry addEntry() throws SQLException {
+        PoolEntry entry = newEntry();
+        bag.add(entry);
+        return entry;
+    }
+
+    private static PoolEntry newEntry() throws SQLException {
+        return new PoolEntry(mock(Connection.class), new StatementCache(0, new StatementCacheStats()));
+    }
+}
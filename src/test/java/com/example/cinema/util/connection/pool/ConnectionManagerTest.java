@@ -0,0 +1,157 @@
+package com.example.cinema.util.connection.pool;
+
+import com.example.cinema.util.request.RequestRouting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ConnectionManagerTest {
+    private ConnectionManager connectionManager;
+
+    @AfterEach
+    void tearDown() {
+        RequestRouting.clear();
+        if (connectionManager != null) {
+            connectionManager.closePool();
+        }
+    }
+
+    @Test
+    void getForReadShouldRotateAcrossReplicas() throws Exception {
+        connectionManager = createConnectionManager(ReadRoutingProperties.Selection.ROUND_ROBIN, "replica-a", "replica-b");
+
+        assertThat(List.of(readSource(), readSource(), readSource(), readSource()))
+                .containsExactly("replica-a", "replica-b", "replica-a", "replica-b");
+    }
+
+    @Test
+    void getForReadShouldPreferLeastBusyReplica() throws Exception {
+        connectionManager = createConnectionManager(ReadRoutingProperties.Selection.LEAST_BUSY, "replica-a", "replica-b");
+
+        try (Connection busy = connectionManager.getForRead()) {
+            assertThat(busy.getCatalog()).isEqualTo("replica-a");
+            assertThat(readSource()).isEqualTo("replica-b");
+            assertThat(readSource()).isEqualTo("replica-b");
+        }
+    }
+
+    @Test
+    void getForReadShouldUsePrimaryWithoutReplicas() throws Exception {
+        connectionManager = createConnectionManager(ReadRoutingProperties.Selection.ROUND_ROBIN);
+
+        assertThat(readSource()).isEqualTo("primary");
+    }
+
+    @Test
+    void getForReadShouldStayOnPrimaryAfterWriteInSameRequest() throws Exception {
+        connectionManager = createConnectionManager(ReadRoutingProperties.Selection.ROUND_ROBIN, "replica-a");
+        RequestRouting.start();
+
+        assertThat(readSource()).isEqualTo("replica-a");
+        connectionManager.get().close();
+        assertThat(readSource()).isEqualTo("primary");
+
+        RequestRouting.clear();
+        assertThat(readSource()).isEqualTo("replica-a");
+    }
+
+    @Test
+    void getForReadShouldKeepUsingReplicasAfterWriteOutsideRequest() throws Exception {
+        connectionManager = createConnectionManager(ReadRoutingProperties.Selection.ROUND_ROBIN, "replica-a");
+
+        connectionManager.get().close();
+
+        assertThat(RequestRouting.isPinnedToPrimary()).isFalse();
+        assertThat(readSource()).isEqualTo("replica-a");
+    }
+
+    @Test
+    void getForReadShouldFallBackToPrimaryWhenReplicaIsDown() throws Exception {
+        var readRoutingProperties = new ReadRoutingProperties();
+        readRoutingProperties.setReplicas(List.of(replica("replica-down", 0)));
+        connectionManager = new ConnectionManager(poolProperties(), readRoutingProperties,
+                () -> connection("primary"),
+                replica -> () -> {
+                    throw new SQLException("Connection refused", "08001");
+                });
+        connectionManager.initConnectionPool();
+
+        assertThat(readSource()).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaConnectionsShouldBeReadOnly() throws Exception {
+        List<Connection> opened = new ArrayList<>();
+        var readRoutingProperties = new ReadRoutingProperties();
+        readRoutingProperties.setReplicas(List.of(replica("replica-a", 1)));
+        connectionManager = new ConnectionManager(poolProperties(), readRoutingProperties,
+                () -> connection("primary"),
+                replica -> () -> {
+                    Connection connection = connection(replica.getUrl());
+                    opened.add(connection);
+                    return connection;
+                });
+        connectionManager.initConnectionPool();
+
+        verify(opened.get(0), times(1)).setReadOnly(true);
+    }
+
+    @Test
+    void findPoolShouldResolvePrimaryAndReplicasByName() {
+        connectionManager = createConnectionManager(ReadRoutingProperties.Selection.ROUND_ROBIN, "replica-a", "replica-b");
+
+        assertThat(connectionManager.findPool("primary")).containsSame(connectionManager.getPool());
+        assertThat(connectionManager.findPool("replica-1").map(ConnectionPool::getName)).contains("replica-1");
+        assertThat(connectionManager.findPool("replica-2")).isEmpty();
+    }
+
+    private String readSource() throws SQLException {
+        try (Connection connection = connectionManager.getForRead()) {
+            return connection.getCatalog();
+        }
+    }
+
+    private static ConnectionManager createConnectionManager(ReadRoutingProperties.Selection selection, String... replicaUrls) {
+        var readRoutingProperties = new ReadRoutingProperties();
+        readRoutingProperties.setSelection(selection);
+        readRoutingProperties.setReplicas(new ArrayList<>());
+        for (String url : replicaUrls) {
+            readRoutingProperties.getReplicas().add(replica(url, 1));
+        }
+
+        var connectionManager = new ConnectionManager(poolProperties(), readRoutingProperties,
+                () -> connection("primary"),
+                replica -> () -> connection(replica.getUrl()));
+        connectionManager.initConnectionPool();
+        return connectionManager;
+    }
+
+    private static ReadRoutingProperties.Replica replica(String url, int minSize) {
+        var replica = new ReadRoutingProperties.Replica();
+        replica.setUrl(url);
+        replica.setMinSize(minSize);
+        replica.setMaxSize(2);
+        return replica;
+    }
+
+    private static ConnectionPoolProperties poolProperties() {
+        var properties = ConnectionPoolProperties.fixed(1);
+        properties.setHousekeepingPeriod(Duration.ofHours(1));
+        properties.setAcquireTimeout(Duration.ofMillis(100));
+        return properties;
+    }
+
+    private static Connection connection(String source) throws SQLException {
+        Connection connection = mock(Connection.class);
+        doReturn(source).when(connection).getCatalog();
+        return connection;
+    }
+}
@@ -0,0 +1,477 @@
+package com.example.cinema.util.connection.pool;
+
+import com.example.cinema.util.request.RequestDeadline;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolTest {
+    private final List<Connection> opened = new CopyOnWriteArrayList<>();
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void startShouldOpenMinimumNumberOfConnections() {
+        pool = createPool(properties(2, 5));
+
+        assertThat(pool.getTotalConnections()).isEqualTo(2);
+        assertThat(pool.getIdleConnections()).isEqualTo(2);
+        assertThat(opened).hasSize(2);
+    }
+
+    @Test
+    void borrowShouldGrowPoolOnDemandUpToMaximum() throws Exception {
+        pool = createPool(properties(1, 3));
+
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        Connection third = pool.borrow();
+
+        assertThat(pool.getTotalConnections()).isEqualTo(3);
+        assertThat(pool.getIdleConnections()).isZero();
+
+        first.close();
+        second.close();
+        third.close();
+
+        assertThat(pool.getIdleConnections()).isEqualTo(3);
+        assertThat(opened).hasSize(3);
+    }
+
+    @Test
+    void borrowShouldTimeOutWhenPoolIsExhausted() throws Exception {
+        pool = createPool(properties(1, 1));
+        pool.borrow();
+
+        assertThatThrownBy(() -> pool.borrow(TimeUnit.MILLISECONDS.toNanos(50)))
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage("Connection pool 'test' exhausted, timed out after 50ms");
+    }
+
+    @Test
+    void borrowShouldTimeOutWhileNewConnectionIsStillOpening() throws Exception {
+        pool = createPool(properties(0, 1), () -> {
+            sleep(1000);
+            return openConnection();
+        });
+
+        long startedAt = System.nanoTime();
+        assertThatThrownBy(() -> pool.borrow(TimeUnit.MILLISECONDS.toNanos(50)))
+                .isInstanceOf(SQLTransientConnectionException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(500));
+        awaitOpened(1);
+        assertThat(pool.borrow(TimeUnit.SECONDS.toNanos(1))).isNotNull();
+    }
+
+    @Test
+    void evictionShouldGrowPoolBeyondMinimumWhileThreadsWait() throws Exception {
+        pool = createPool(properties(0, 2));
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+
+        var waiter = Executors.newSingleThreadExecutor();
+        try {
+            var borrowed = waiter.submit(() -> pool.borrow(TimeUnit.SECONDS.toNanos(5)));
+            while (pool.getThreadsWaiting() == 0) {
+                Thread.sleep(1);
+            }
+            doReturn(true).when(opened.get(0)).isClosed();
+            first.close();
+
+            assertThat(borrowed.get(5, TimeUnit.SECONDS).isClosed()).isFalse();
+        } finally {
+            waiter.shutdownNow();
+        }
+
+        assertThat(opened).hasSize(3);
+        assertThat(pool.getTotalConnections()).isEqualTo(2);
+        second.close();
+    }
+
+    @Test
+    void borrowShouldHandOverConnectionReleasedWhileWaiting() throws Exception {
+        pool = createPool(properties(1, 1));
+        Connection borrowed = pool.borrow();
+
+        var releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                borrowed.close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        releaser.start();
+
+        Connection connection = pool.borrow(TimeUnit.SECONDS.toNanos(5));
+        releaser.join();
+
+        assertThat(connection.isClosed()).isFalse();
+        assertThat(opened).hasSize(1);
+    }
+
+    @Test
+    void statementsShouldInheritRemainingRequestDeadline() throws Exception {
+        pool = createPool(properties(1, 1));
+        PreparedStatement statement = mock(PreparedStatement.class);
+        doReturn(statement).when(opened.get(0)).prepareStatement("SELECT 1");
+
+        RequestDeadline.start(Duration.ofMillis(2500));
+        try {
+            pool.borrow().prepareStatement("SELECT 1");
+        } finally {
+            RequestDeadline.clear();
+        }
+
+        verify(statement, times(1)).setQueryTimeout(3);
+    }
+
+    @Test
+    void borrowShouldReuseReleasedConnection() throws Exception {
+        pool = createPool(properties(1, 3));
+
+        pool.borrow().close();
+        pool.borrow().close();
+
+        assertThat(opened).hasSize(1);
+    }
+
+    @Test
+    void housekeepShouldEvictIdleConnectionsBackToMinimum() throws Exception {
+        ConnectionPoolProperties properties = properties(1, 3);
+        properties.setIdleTimeout(Duration.ofMillis(1));
+        pool = createPool(properties);
+
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        first.close();
+        second.close();
+        Thread.sleep(10);
+
+        pool.housekeep();
+
+        assertThat(pool.getTotalConnections()).isEqualTo(1);
+        verify(opened.get(0), times(1)).close();
+        verify(opened.get(1), never()).close();
+    }
+
+    @Test
+    void releaseShouldRetireConnectionAfterMaxLifetime() throws Exception {
+        ConnectionPoolProperties properties = properties(0, 2);
+        properties.setMaxLifetime(Duration.ofMillis(1));
+        pool = createPool(properties);
+
+        Connection connection = pool.borrow();
+        Thread.sleep(10);
+        connection.close();
+
+        assertThat(pool.getTotalConnections()).isZero();
+        verify(opened.get(0), times(1)).close();
+    }
+
+    @Test
+    void housekeepShouldReplaceBrokenIdleConnections() throws Exception {
+        pool = createPool(properties(2, 2));
+        doReturn(false).when(opened.get(0)).isValid(anyInt());
+
+        pool.housekeep();
+        awaitOpened(3);
+
+        assertThat(pool.getTotalConnections()).isEqualTo(2);
+        verify(opened.get(0), times(1)).close();
+    }
+
+    @Test
+    void resizeShouldShrinkIdleConnectionsAndGrowMinimum() throws Exception {
+        pool = createPool(properties(3, 3));
+
+        pool.resize(1, 1);
+
+        assertThat(pool.getTotalConnections()).isEqualTo(1);
+
+        pool.resize(4, 6);
+
+        awaitOpened(6);
+        awaitTotalConnections(4);
+        assertThat(pool.getMaxSize()).isEqualTo(6);
+    }
+
+    @Test
+    void resizeShouldReturnBeforeNewConnectionsAreOpened() throws Exception {
+        pool = createPool(properties(0, 2), () -> {
+            sleep(500);
+            return openConnection();
+        });
+
+        long startedAt = System.nanoTime();
+        pool.resize(2, 2);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(250));
+        awaitOpened(2);
+    }
+
+    @Test
+    void resizeShouldRetireBorrowedConnectionAboveNewMaximumOnRelease() throws Exception {
+        pool = createPool(properties(0, 2));
+
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        pool.resize(0, 1);
+        first.close();
+        second.close();
+
+        assertThat(pool.getTotalConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void resizeShouldRejectInvalidSizes() {
+        pool = createPool(properties(1, 2));
+
+        assertThatThrownBy(() -> pool.resize(3, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid pool size: min=3, max=2");
+    }
+
+    @Test
+    void borrowShouldFailWhenPoolIsClosed() {
+        pool = createPool(properties(1, 1));
+        pool.close();
+
+        assertThatThrownBy(() -> pool.borrow())
+                .isInstanceOf(SQLException.class)
+                .hasMessage("Connection pool 'test' is closed");
+    }
+
+    @Test
+    void getStatsShouldReportAcquisitionsTimeoutsAndActiveConnections() throws Exception {
+        pool = createPool(properties(1, 1));
+        pool.borrow().close();
+        Connection held = pool.borrow();
+
+        assertThatThrownBy(() -> pool.borrow(TimeUnit.MILLISECONDS.toNanos(10)))
+                .isInstanceOf(SQLTransientConnectionException.class);
+
+        PoolStats stats = pool.getStats();
+        assertThat(stats.getAcquisitions()).isEqualTo(2);
+        assertThat(stats.getTimeouts()).isEqualTo(1);
+        assertThat(stats.getActiveConnections()).isEqualTo(1);
+        assertThat(stats.getIdleConnections()).isZero();
+        assertThat(stats.getCheckoutDuration().getCount()).isEqualTo(1);
+
+        held.close();
+        assertThat(pool.getStats().getCheckoutDuration().getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void detectLeaksShouldReportConnectionHeldPastThresholdOnce() throws Exception {
+        var properties = properties(1, 1);
+        properties.setLeakDetectionThreshold(Duration.ofHours(1));
+        pool = createPool(properties);
+        pool.borrow();
+
+        pool.detectLeaks();
+        assertThat(pool.getStats().getLeaksDetected()).isZero();
+
+        properties.setLeakDetectionThreshold(Duration.ofNanos(1));
+        Thread.sleep(1);
+        pool.detectLeaks();
+        pool.detectLeaks();
+        assertThat(pool.getStats().getLeaksDetected()).isEqualTo(1);
+    }
+
+    @Test
+    void virtualThreadsShouldWaitForConnectionsWithoutPinningCarrier() throws Exception {
+        pool = createPool(properties(0, 4));
+        AtomicInteger pinned = new AtomicInteger();
+
+        try (var recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            recording.startAsync();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 1000; i++) {
+                    executor.submit(() -> {
+                        Connection connection = pool.borrow(TimeUnit.SECONDS.toNanos(30));
+                        try {
+                            Thread.sleep(1);
+                        } finally {
+                            connection.close();
+                        }
+                        return null;
+                    });
+                }
+            }
+            recording.stop();
+        }
+
+        assertThat(pinned).hasValue(0);
+        assertThat(pool.getTotalConnections()).isEqualTo(4);
+        assertThat(pool.getStats().getAcquisitions()).isEqualTo(1000);
+    }
+
+    @Test
+    void startShouldOpenEagerConnectionsInParallel() {
+        ConnectionPoolProperties properties = properties(4, 4);
+        properties.setInitialSize(4);
+        properties.setWarmupParallelism(4);
+
+        long startedAt = System.nanoTime();
+        pool = createPool(properties, () -> {
+            sleep(300);
+            return openConnection();
+        });
+
+        assertThat(pool.getTotalConnections()).isEqualTo(4);
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(1000));
+    }
+
+    @Test
+    void startShouldReturnWhenWarmupBudgetIsExceeded() throws Exception {
+        ConnectionPoolProperties properties = properties(2, 2);
+        properties.setWarmupTimeout(Duration.ofMillis(50));
+
+        long startedAt = System.nanoTime();
+        pool = createPool(properties, () -> {
+            sleep(500);
+            return openConnection();
+        });
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(400));
+        awaitTotalConnections(2);
+    }
+
+    @Test
+    void startShouldOpenRemainingConnectionsInBackground() throws Exception {
+        ConnectionPoolProperties properties = properties(3, 5);
+        properties.setInitialSize(1);
+        properties.setWarmupParallelism(1);
+
+        pool = createPool(properties, () -> {
+            sleep(50);
+            return openConnection();
+        });
+
+        assertThat(pool.getTotalConnections()).isGreaterThanOrEqualTo(1);
+        awaitTotalConnections(3);
+    }
+
+    @Test
+    void startShouldRetryFailedConnectionsWithBackoff() throws Exception {
+        ConnectionPoolProperties properties = properties(2, 2);
+        properties.setConnectRetryBackoff(Duration.ofMillis(10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        pool = createPool(properties, () -> {
+            if (attempts.incrementAndGet() <= 3) {
+                throw new SQLException("Connection refused", "08001");
+            }
+            return openConnection();
+        });
+
+        awaitTotalConnections(2);
+        assertThat(attempts).hasValue(5);
+    }
+
+    @Test
+    void borrowShouldReplaceConnectionThatFailsValidationAfterIdling() throws Exception {
+        ConnectionPoolProperties properties = properties(1, 1);
+        properties.setValidateAfterIdle(Duration.ofMillis(1));
+        pool = createPool(properties);
+        doReturn(false).when(opened.get(0)).isValid(anyInt());
+        Thread.sleep(5);
+
+        pool.borrow().close();
+
+        verify(opened.get(0), times(1)).close();
+        assertThat(opened).hasSize(2);
+        assertThat(pool.getTotalConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void borrowShouldSkipValidationOfRecentlyUsedConnection() throws Exception {
+        ConnectionPoolProperties properties = properties(1, 1);
+        properties.setValidateAfterIdle(Duration.ofHours(1));
+        pool = createPool(properties);
+
+        pool.borrow().close();
+        pool.borrow().close();
+
+        verify(opened.get(0), never()).isValid(anyInt());
+    }
+
+    private void awaitTotalConnections(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getTotalConnections() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pool.getTotalConnections()).isEqualTo(expected);
+    }
+
+    private void awaitOpened(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (opened.size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(opened).hasSize(expected);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ConnectionPool createPool(ConnectionPoolProperties properties, ConnectionFactory connectionFactory) {
+        var connectionPool = new ConnectionPool("test", connectionFactory, properties);
+        connectionPool.start();
+        return connectionPool;
+    }
+
+    private ConnectionPool createPool(ConnectionPoolProperties properties) {
+        var connectionPool = new ConnectionPool("test", this::openConnection, properties);
+        connectionPool.start();
+        return connectionPool;
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        lenient().doReturn(true).when(connection).isValid(anyInt());
+        opened.add(connection);
+        return connection;
+    }
+
+    private static ConnectionPoolProperties properties(int minSize, int maxSize) {
+        var properties = new ConnectionPoolProperties();
+        properties.setMinSize(minSize);
+        properties.setMaxSize(maxSize);
+        properties.setHousekeepingPeriod(Duration.ofHours(1));
+        return properties;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.cinema.util.connection.pool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @Test
+    void snapshotShouldReportCountMeanMaxAndPercentiles() {
+        var histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount()).isEqualTo(100);
+        assertThat(snapshot.getMaxMicros()).isEqualTo(5000);
+        assertThat(snapshot.getP50Micros()).isLessThanOrEqualTo(16);
+        assertThat(snapshot.getP99Micros()).isLessThanOrEqualTo(16);
+        assertThat(snapshot.getMeanMicros()).isEqualTo(59);
+    }
+
+    @Test
+    void snapshotOfEmptyHistogramShouldBeZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertThat(snapshot.getCount()).isZero();
+        assertThat(snapshot.getP99Micros()).isZero();
+        assertThat(snapshot.getBuckets()).isEmpty();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.cinema.util.connection.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class PooledConnectionTest {
+    private final AtomicInteger opens = new AtomicInteger();
+    private Connection physical;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        physical = mock(Connection.class);
+        doReturn(Connection.TRANSACTION_READ_COMMITTED).when(physical).getTransactionIsolation();
+
+        var properties = ConnectionPoolProperties.fixed(1);
+        properties.setHousekeepingPeriod(Duration.ofHours(1));
+        pool = new ConnectionPool("test", () -> {
+            opens.incrementAndGet();
+            return physical;
+        }, properties);
+        pool.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void closeTwiceShouldReturnConnectionToPoolOnlyOnce() throws Exception {
+        Connection connection = pool.borrow();
+
+        connection.close();
+        connection.close();
+
+        assertThat(pool.getIdleConnections()).isEqualTo(1);
+        assertThat(pool.getTotalConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void useAfterCloseShouldThrowException() throws Exception {
+        Connection connection = pool.borrow();
+        connection.close();
+
+        assertThatThrownBy(() -> connection.prepareStatement("SELECT 1"))
+                .isInstanceOf(SQLNonTransientConnectionException.class)
+                .hasMessage("Connection is closed");
+        assertThat(connection.isClosed()).isTrue();
+        verify(physical, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    void closeShouldNotAffectConnectionHandedToNextBorrower() throws Exception {
+        Connection stale = pool.borrow();
+        stale.close();
+        Connection current = pool.borrow();
+
+        stale.close();
+
+        assertThat(current.isClosed()).isFalse();
+        assertThat(pool.getIdleConnections()).isZero();
+    }
+
+    @Test
+    void closeShouldResetSessionStateChangedByBorrower() throws Exception {
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        connection.setReadOnly(true);
+
+        connection.close();
+
+        verify(physical, times(1)).rollback();
+        verify(physical, times(1)).setAutoCommit(true);
+        verify(physical, times(1)).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        verify(physical, times(1)).setReadOnly(false);
+    }
+
+    @Test
+    void closeShouldNotTouchUnchangedSessionState() throws Exception {
+        pool.borrow().close();
+
+        verify(physical, never()).rollback();
+        verify(physical, never()).setAutoCommit(anyBoolean());
+        verify(physical, never()).setTransactionIsolation(anyInt());
+        verify(physical, never()).setReadOnly(anyBoolean());
+    }
+
+    @Test
+    void closeShouldEvictConnectionWhenResetFails() throws Exception {
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        doThrow(new SQLException("broken")).when(physical).rollback();
+
+        assertThatThrownBy(connection::close).isInstanceOf(SQLException.class);
+
+        verify(physical, times(1)).close();
+        awaitOpens(2);
+    }
+
+    @Test
+    void closeShouldEvictConnectionAfterFatalSqlState() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        doReturn(statement).when(physical).prepareStatement("SELECT 1");
+        doThrow(new SQLException("terminating connection due to administrator command", "57P01"))
+                .when(statement).executeQuery();
+
+        Connection connection = pool.borrow();
+        assertThatThrownBy(() -> connection.prepareStatement("SELECT 1").executeQuery())
+                .isInstanceOf(SQLException.class);
+        connection.close();
+
+        verify(physical, times(1)).close();
+        awaitOpens(2);
+    }
+
+    @Test
+    void closeShouldKeepConnectionAfterNonFatalSqlState() throws Exception {
+        doThrow(new SQLException("duplicate key value violates unique constraint", "23505"))
+                .when(physical).commit();
+
+        Connection connection = pool.borrow();
+        assertThatThrownBy(connection::commit).isInstanceOf(SQLException.class);
+        connection.close();
+
+        assertThat(pool.getIdleConnections()).isEqualTo(1);
+        verify(physical, never()).close();
+    }
+
+    private void awaitOpens(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (opens.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(opens).hasValue(expected);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.cinema.util.connection.pool;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatesTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "08006, true",
+            "08003, true",
+            "57P01, true",
+            "57P03, true",
+            "23505, false",
+            "40001, false",
+            "57014, false"
+    })
+    void isFatalShouldRecognizeConnectionLossStates(String sqlState, boolean fatal) {
+        assertThat(SqlStates.isFatal(new SQLException("error", sqlState))).isEqualTo(fatal);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"08006", "57P02"})
+    void isFatalShouldInspectChainedExceptions(String sqlState) {
+        var exception = new SQLException("batch failed", "XX000");
+        exception.setNextException(new SQLException("connection lost", sqlState));
+
+        assertThat(SqlStates.isFatal(exception)).isTrue();
+    }
+}
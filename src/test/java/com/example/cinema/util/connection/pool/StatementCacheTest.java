@@ -0,0 +1,132 @@
+package com.example.cinema.util.connection.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class StatementCacheTest {
+    private static final String FIND_SQL = "SELECT id FROM movies WHERE id = ?";
+    private static final String SAVE_SQL = "INSERT INTO genres(genre) VALUES (?)";
+    private static final String DELETE_SQL = "DELETE FROM genres WHERE id = ?";
+
+    private Connection physical;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        physical = mock(Connection.class);
+        doAnswer(invocation -> mock(PreparedStatement.class)).when(physical).prepareStatement(anyString());
+        doAnswer(invocation -> mock(PreparedStatement.class)).when(physical).prepareStatement(anyString(), anyInt());
+
+        var properties = ConnectionPoolProperties.fixed(1);
+        properties.setHousekeepingPeriod(Duration.ofHours(1));
+        properties.setStatementCacheSize(2);
+        pool = new ConnectionPool("test", () -> physical, properties);
+        pool.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void prepareStatementShouldReuseClosedStatementWithSameSql() throws Exception {
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement(FIND_SQL).close();
+        }
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement(FIND_SQL).close();
+        }
+
+        verify(physical, times(1)).prepareStatement(FIND_SQL);
+        assertThat(pool.getStatementCacheStats().getMisses()).isEqualTo(1);
+        assertThat(pool.getStatementCacheStats().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void prepareStatementShouldDistinguishGeneratedKeysOption() throws Exception {
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement(SAVE_SQL).close();
+            connection.prepareStatement(SAVE_SQL, Statement.RETURN_GENERATED_KEYS).close();
+        }
+
+        assertThat(pool.getStatementCacheStats().getMisses()).isEqualTo(2);
+        assertThat(pool.getStatementCacheStats().getHits()).isZero();
+    }
+
+    @Test
+    void prepareStatementShouldEvictLeastRecentlyUsedStatement() throws Exception {
+        PreparedStatement evicted;
+
+        try (Connection connection = pool.borrow()) {
+            PreparedStatement find = connection.prepareStatement(FIND_SQL);
+            evicted = find.unwrap(CachedPreparedStatement.class).delegate;
+            find.close();
+            connection.prepareStatement(SAVE_SQL).close();
+            connection.prepareStatement(DELETE_SQL).close();
+        }
+
+        assertThat(pool.getStatementCacheStats().getEvictions()).isEqualTo(1);
+        verify(evicted, times(1)).close();
+    }
+
+    @Test
+    void prepareStatementShouldOpenSecondStatementWhileFirstIsInUse() throws Exception {
+        try (Connection connection = pool.borrow()) {
+            PreparedStatement outer = connection.prepareStatement(FIND_SQL);
+            PreparedStatement inner = connection.prepareStatement(FIND_SQL);
+
+            assertThat(inner).isNotSameAs(outer);
+
+            inner.close();
+            outer.close();
+        }
+
+        verify(physical, times(2)).prepareStatement(FIND_SQL);
+    }
+
+    @Test
+    void closeShouldResetParametersAndResults() throws Exception {
+        PreparedStatement delegate;
+        ResultSet resultSet = mock(ResultSet.class);
+
+        try (Connection connection = pool.borrow()) {
+            PreparedStatement statement = connection.prepareStatement(FIND_SQL);
+            delegate = statement.unwrap(CachedPreparedStatement.class).delegate;
+            doReturn(resultSet).when(delegate).executeQuery();
+
+            statement.setInt(1, 42);
+            statement.executeQuery();
+            statement.close();
+        }
+
+        verify(resultSet, times(1)).close();
+        verify(delegate, times(1)).clearParameters();
+        verify(delegate, never()).close();
+    }
+
+    @Test
+    void connectionCloseShouldReturnLeakedStatementsToCache() throws Exception {
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement(FIND_SQL);
+        }
+        try (Connection connection = pool.borrow()) {
+            connection.prepareStatement(FIND_SQL).close();
+        }
+
+        verify(physical, times(1)).prepareStatement(FIND_SQL);
+        assertThat(pool.getStatementCacheStats().getHits()).isEqualTo(1);
+    }
+}
@@ -32,7 +32,8 @@ class MoviesMapperTest {
                 "George Lukas",
                 136,
                 "The first Star Wars episode",
-                Collections.emptyList());
+                Collections.emptyList(),
+                0);
 
         assertThat(actualResult).isEqualTo(expectedResult);
     }
@@ -0,0 +1,83 @@
+package com.example.cinema.util.migration;
+
+import com.example.cinema.util.connection.pool.ConnectionManager;
+import org.assertj.db.type.Source;
+import org.assertj.db.type.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.db.api.Assertions.assertThat;
+
+@Testcontainers
+class MigrationRunnerTest {
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            "postgres:15.4"
+    )
+            .withDatabaseName("cinema_repository");
+
+    static ConnectionManager connectionManager;
+    static Source dataSource;
+
+    @BeforeEach
+    void setUp() {
+        postgres.start();
+
+        connectionManager = new ConnectionManager(
+                postgres.getPassword(),
+                postgres.getUsername(),
+                postgres.getJdbcUrl(),
+                2);
+        connectionManager.initConnectionPool();
+
+        dataSource = new Source(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.closePool();
+        postgres.stop();
+    }
+
+    @Test
+    void migrateShouldApplyEveryMigrationOnceInOrder() {
+        new MigrationRunner(connectionManager).migrate();
+        new MigrationRunner(connectionManager).migrate();
+
+        assertThat(new Table(dataSource, "schema_migrations"))
+                .hasNumberOfRows(5)
+                .column("version").hasValues(1, 2, 3, 4, 5);
+        assertThat(new Table(dataSource, "movie_to_genre")).exists();
+        assertThat(new Table(dataSource, "genre_stats")).exists();
+    }
+
+    @Test
+    void migrateShouldFailWhenAppliedMigrationWasChanged() {
+        new MigrationRunner(connectionManager, List.of(Migration.of("V1__first.sql", "create table a(id int);")))
+                .migrate();
+
+        MigrationRunner edited = new MigrationRunner(connectionManager,
+                List.of(Migration.of("V1__first.sql", "create table a(id bigint);")));
+
+        assertThatThrownBy(edited::migrate).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void migrateShouldRollBackFailedMigration() {
+        MigrationRunner broken = new MigrationRunner(connectionManager, List.of(
+                Migration.of("V1__first.sql", "create table a(id int);"),
+                Migration.of("V2__broken.sql", "create table b(id int); select * from missing;")));
+
+        assertThatThrownBy(broken::migrate).isInstanceOf(RuntimeException.class);
+
+        assertThat(new Table(dataSource, "schema_migrations")).hasNumberOfRows(1);
+        assertThat(new Table(dataSource, "b")).doesNotExist();
+    }
+}
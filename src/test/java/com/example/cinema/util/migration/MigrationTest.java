@@ -0,0 +1,32 @@
+package com.example.cinema.util.migration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MigrationTest {
+    @Test
+    void ofShouldReadVersionAndDescriptionFromFileName() {
+        Migration migration = Migration.of("V12__unique_genre_titles.sql", "select 1;");
+
+        assertThat(migration.version()).isEqualTo(12);
+        assertThat(migration.description()).isEqualTo("unique genre titles");
+    }
+
+    @Test
+    void ofShouldRejectFileNameWithoutVersion() {
+        assertThatThrownBy(() -> Migration.of("unique_genre_titles.sql", "select 1;"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void checksumShouldIgnoreLineEndingsOnly() {
+        Migration unix = Migration.of("V1__baseline.sql", "select 1;\nselect 2;\n");
+        Migration windows = Migration.of("V1__baseline.sql", "select 1;\r\nselect 2;\r\n");
+        Migration edited = Migration.of("V1__baseline.sql", "select 1;\nselect 3;\n");
+
+        assertThat(windows.checksum()).isEqualTo(unix.checksum()).hasSize(64);
+        assertThat(edited.checksum()).isNotEqualTo(unix.checksum());
+    }
+}
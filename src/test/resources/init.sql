@@ -1,3 +1,5 @@
+-- Test schema; kept in step with src/main/resources/db/migration
+
 create table public.movies
 (
     id               serial
@@ -6,9 +8,18 @@ create table public.movies
     release_date     date         not null,
     director         varchar(100) not null,
     duration_minutes integer,
-    description      text
+    description      text,
+    version          integer      not null default 0,
+    search_vector    tsvector generated always as (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(director, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'C')
+    ) stored
 );
 
+create index movies_search_vector_idx
+    on public.movies using gin (search_vector);
+
 
 create table public.screenings
 (
@@ -76,10 +87,58 @@ create table public.tickets
 create table public.movie_to_genre
 (
     movie_id integer not null
-        references public.movies,
+        references public.movies on delete cascade,
     genre_id integer not null
-        references public.genres,
+        references public.genres on delete cascade,
     primary key (movie_id, genre_id)
 );
 
 
+create index movie_to_genre_genre_id_movie_id_idx
+    on public.movie_to_genre (genre_id, movie_id);
+
+create index movies_release_date_id_idx
+    on public.movies (release_date, id);
+
+create index movies_director_idx
+    on public.movies (director);
+
+create index movies_title_release_date_idx
+    on public.movies (title, release_date);
+
+create index genres_lower_genre_idx
+    on public.genres (lower(genre));
+
+
+-- Catalog statistics. Refreshed concurrently by StatsServiceImpl when the
+-- underlying tables have changed; each view needs a unique index for that.
+create materialized view public.genre_stats as
+select g.id                    as genre_id,
+       g.genre,
+       count(m.id)             as movies,
+       avg(m.duration_minutes) as average_duration
+from public.genres g
+         left join public.movie_to_genre mtg on mtg.genre_id = g.id
+         left join public.movies m on m.id = mtg.movie_id
+group by g.id, g.genre;
+
+create unique index genre_stats_genre_id_idx
+    on public.genre_stats (genre_id);
+
+create materialized view public.release_year_stats as
+select extract(year from release_date)::integer as release_year,
+       count(*)                                 as movies
+from public.movies
+group by 1;
+
+create unique index release_year_stats_release_year_idx
+    on public.release_year_stats (release_year);
+
+create materialized view public.director_stats as
+select director,
+       count(*) as movies
+from public.movies
+group by director;
+
+create unique index director_stats_director_idx
+    on public.director_stats (director);